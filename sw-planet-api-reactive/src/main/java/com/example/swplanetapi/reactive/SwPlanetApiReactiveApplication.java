@@ -0,0 +1,13 @@
+package com.example.swplanetapi.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class SwPlanetApiReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(SwPlanetApiReactiveApplication.class, args);
+	}
+
+}
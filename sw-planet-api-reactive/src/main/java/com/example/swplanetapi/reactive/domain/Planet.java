@@ -0,0 +1,90 @@
+package com.example.swplanetapi.reactive.domain;
+
+import javax.validation.constraints.NotEmpty;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Same row as the servlet API's JPA entity. The table, its generated {@code climate_key} and
+ * {@code terrain_key} columns and the {@code planets_seq} id source are owned by that schema; the
+ * key columns are only referenced in filters, never written.
+ */
+@Table("planets")
+public class Planet {
+  @Id
+  private Long id;
+
+  @NotEmpty
+  private String name;
+
+  @NotEmpty
+  private String climate;
+
+  @NotEmpty
+  private String terrain;
+
+  public Planet() {
+  }
+
+  public Planet(String name, String climate, String terrain) {
+    this.name = name;
+    this.climate = climate;
+    this.terrain = terrain;
+  }
+
+  public Planet(Long id, String name, String climate, String terrain) {
+    this.id = id;
+    this.name = name;
+    this.climate = climate;
+    this.terrain = terrain;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public String getClimate() {
+    return climate;
+  }
+
+  public void setClimate(String climate) {
+    this.climate = climate;
+  }
+
+  public String getTerrain() {
+    return terrain;
+  }
+
+  public void setTerrain(String terrain) {
+    this.terrain = terrain;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return EqualsBuilder.reflectionEquals(obj, this);
+  }
+
+  @Override
+  public String toString() {
+    return "Planet{" +
+            "id=" + id +
+            ", name='" + name + '\'' +
+            ", climate='" + climate + '\'' +
+            ", terrain='" + terrain + '\'' +
+            '}';
+  }
+}
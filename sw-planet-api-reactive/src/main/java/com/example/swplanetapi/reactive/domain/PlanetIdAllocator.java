@@ -0,0 +1,78 @@
+package com.example.swplanetapi.reactive.domain;
+
+import java.util.Locale;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hands out planet ids from the servlet API's {@code planets_seq} using the same pooled scheme as
+ * its {@code @SequenceGenerator(initialValue = 1000, allocationSize = 50)}: every value drawn
+ * reserves the block {@code (value - 50, value]}, never reaching below the initial value, so both
+ * stacks can insert into the same table without colliding. On MySQL, which has no sequences, Hibernate keeps the counter in a
+ * single-row {@code planets_seq} table and so do we.
+ */
+@Component
+public class PlanetIdAllocator {
+  static final long INITIAL_VALUE = 1000;
+  static final int ALLOCATION_SIZE = 50;
+
+  private final DatabaseClient databaseClient;
+  private final TransactionalOperator transactionalOperator;
+  private final boolean sequenceTable;
+
+  // Guarded by this; next == end means the block is used up.
+  private long next;
+  private long end;
+
+  public PlanetIdAllocator(ConnectionFactory connectionFactory, DatabaseClient databaseClient,
+      ReactiveTransactionManager transactionManager) {
+    this.databaseClient = databaseClient;
+    this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    this.sequenceTable = connectionFactory.getMetadata().getName().toLowerCase(Locale.ROOT).contains("mysql");
+  }
+
+  public Mono<Long> nextId() {
+    return Mono.defer(() -> {
+      Long id = take();
+      return id != null ? Mono.just(id) : nextValue().map(this::install);
+    });
+  }
+
+  private synchronized Long take() {
+    return next < end ? next++ : null;
+  }
+
+  /**
+   * Keeps the freshly reserved block unless another caller installed one while it was being
+   * fetched; either way the caller gets the block's first id, and at worst a block is cut short.
+   */
+  private synchronized long install(long value) {
+    long first = Math.max(value - ALLOCATION_SIZE + 1, INITIAL_VALUE);
+    if (next >= end) {
+      next = first + 1;
+      end = value + 1;
+    }
+    return first;
+  }
+
+  private Mono<Long> nextValue() {
+    if (!sequenceTable) {
+      return databaseClient.sql("SELECT NEXT VALUE FOR planets_seq")
+          .map(row -> row.get(0, Long.class))
+          .one();
+    }
+    Mono<Long> increment = databaseClient.sql("SELECT next_val FROM planets_seq FOR UPDATE")
+        .map(row -> row.get(0, Long.class))
+        .one()
+        .flatMap(value -> databaseClient.sql("UPDATE planets_seq SET next_val = :next")
+            .bind("next", value + ALLOCATION_SIZE)
+            .then()
+            .thenReturn(value));
+    return transactionalOperator.transactional(increment);
+  }
+}
@@ -0,0 +1,9 @@
+package com.example.swplanetapi.reactive.domain;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface PlanetRepository extends ReactiveCrudRepository<Planet, Long> {
+
+  Mono<Planet> findByName(String name);
+}
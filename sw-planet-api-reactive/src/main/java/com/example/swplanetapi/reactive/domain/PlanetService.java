@@ -0,0 +1,89 @@
+package com.example.swplanetapi.reactive.domain;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class PlanetService {
+  private final PlanetRepository planetRepository;
+  private final R2dbcEntityTemplate template;
+  private final PlanetIdAllocator idAllocator;
+
+  public PlanetService(PlanetRepository planetRepository, R2dbcEntityTemplate template,
+      PlanetIdAllocator idAllocator) {
+    this.planetRepository = planetRepository;
+    this.template = template;
+    this.idAllocator = idAllocator;
+  }
+
+  /**
+   * The id is assigned up front, so the row goes out as a plain INSERT; a taken name surfaces as
+   * the driver's unique-key violation, translated to a {@code DataIntegrityViolationException}.
+   */
+  public Mono<Planet> create(Planet planet) {
+    return idAllocator.nextId().flatMap(id -> {
+      planet.setId(id);
+      return template.insert(planet);
+    });
+  }
+
+  public Mono<Planet> get(Long id) {
+    return planetRepository.findById(id);
+  }
+
+  public Mono<Planet> getByName(String name) {
+    return planetRepository.findByName(name);
+  }
+
+  /** Every matching planet, emitted as the rows arrive. */
+  public Flux<Planet> list(String terrain, String climate) {
+    return template.select(Query.query(matching(terrain, climate, null)).sort(Sort.by("id")), Planet.class);
+  }
+
+  public Mono<Slice<Planet>> list(String terrain, String climate, Long afterId, int limit) {
+    Query query = Query.query(matching(terrain, climate, afterId)).sort(Sort.by("id")).limit(limit + 1);
+    return template.select(query, Planet.class).collectList().map(planets -> {
+      boolean hasNext = planets.size() > limit;
+      List<Planet> content = hasNext ? planets.subList(0, limit) : planets;
+      return new SliceImpl<>(content, Pageable.ofSize(limit), hasNext);
+    });
+  }
+
+  public Mono<Void> remove(Long id) {
+    return template.delete(Query.query(where("id").is(id)), Planet.class)
+        .flatMap(deleted -> deleted == 0
+            ? Mono.error(new EmptyResultDataAccessException(
+                String.format("No %s entity with id %s exists!", Planet.class, id), 1))
+            : Mono.empty());
+  }
+
+  // Filters go through the generated lower-cased key columns, as in the servlet API, so they stay
+  // case-insensitive and indexed.
+  private static Criteria matching(String terrain, String climate, Long afterId) {
+    Criteria criteria = Criteria.empty();
+    if (climate != null) {
+      criteria = criteria.and("climate_key").is(climate.toLowerCase(Locale.ROOT));
+    }
+    if (terrain != null) {
+      criteria = criteria.and("terrain_key").is(terrain.toLowerCase(Locale.ROOT));
+    }
+    if (afterId != null) {
+      criteria = criteria.and("id").greaterThan(afterId);
+    }
+    return criteria;
+  }
+}
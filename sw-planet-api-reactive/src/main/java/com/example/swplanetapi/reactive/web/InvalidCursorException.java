@@ -0,0 +1,8 @@
+package com.example.swplanetapi.reactive.web;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor: " + cursor);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.swplanetapi.reactive.web;
+
+import com.example.swplanetapi.reactive.domain.Planet;
+import com.example.swplanetapi.reactive.domain.PlanetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/planets")
+public class PlanetController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private PlanetService planetService;
+
+    @PostMapping
+    public Mono<ResponseEntity<Planet>> create(@Valid @RequestBody Mono<Planet> planet) {
+        return planet.flatMap(planetService::create)
+                .map(planetCreated -> ResponseEntity.status(HttpStatus.CREATED).body(planetCreated));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Planet>> get(@PathVariable("id") Long id) {
+        return planetService.get(id).map(planet -> ResponseEntity.ok(planet))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/name/{name}")
+    public Mono<ResponseEntity<Planet>> getByName(@PathVariable("name") String name) {
+        return planetService.getByName(name).map(planet -> ResponseEntity.ok(planet))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Planet>>> list(@RequestParam(required = false) String terrain,
+                                                   @RequestParam(required = false) String climate,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   @RequestParam(required = false) String after,
+                                                   ServerHttpRequest request) {
+        if (limit == null && after == null) {
+            return planetService.list(terrain, climate).collectList().map(ResponseEntity::ok);
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return planetService.list(terrain, climate, PlanetCursor.decode(after), pageSize)
+                .map(page -> withNextLink(page, request, pageSize));
+    }
+
+    /** Rows are written one per line as the database emits them, with backpressure end to end. */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Planet> export(@RequestParam(required = false) String terrain,
+                               @RequestParam(required = false) String climate) {
+        return planetService.list(terrain, climate);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> remove(@PathVariable("id") Long id) {
+        return planetService.remove(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private static ResponseEntity<List<Planet>> withNextLink(Slice<Planet> page, ServerHttpRequest request,
+                                                             int pageSize) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            Planet last = page.getContent().get(page.getNumberOfElements() - 1);
+            String next = UriComponentsBuilder.fromHttpRequest(request)
+                    .replaceQueryParam("after", PlanetCursor.encode(last.getId()))
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getContent());
+    }
+}
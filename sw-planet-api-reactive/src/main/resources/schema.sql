@@ -0,0 +1,15 @@
+-- Mirror of the servlet API's Hibernate DDL; only applied to embedded databases (spring.sql.init.mode=embedded).
+CREATE SEQUENCE IF NOT EXISTS planets_seq START WITH 1000 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS planets (
+  id BIGINT NOT NULL PRIMARY KEY,
+  name VARCHAR(255) NOT NULL UNIQUE,
+  climate VARCHAR(255) NOT NULL,
+  terrain VARCHAR(255) NOT NULL,
+  climate_key VARCHAR(255) GENERATED ALWAYS AS (LOWER(climate)),
+  terrain_key VARCHAR(255) GENERATED ALWAYS AS (LOWER(terrain)),
+  version BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_planets_climate_terrain ON planets (climate_key, terrain_key);
+CREATE INDEX IF NOT EXISTS idx_planets_terrain ON planets (terrain_key);
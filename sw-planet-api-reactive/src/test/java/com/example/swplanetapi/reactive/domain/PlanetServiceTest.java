@@ -0,0 +1,105 @@
+package com.example.swplanetapi.reactive.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Slice;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest
+@Import({PlanetService.class, PlanetIdAllocator.class})
+public class PlanetServiceTest {
+
+  @Autowired
+  private PlanetService planetService;
+
+  @Autowired
+  private PlanetRepository planetRepository;
+
+  @Autowired
+  private DatabaseClient databaseClient;
+
+  @BeforeEach
+  public void clean() {
+    planetRepository.deleteAll().block();
+  }
+
+  @DisplayName("Teste de integração: Criando planetas com ids do mesmo bloco da sequência usada pela API servlet")
+  @Test
+  public void createPlanet_AssignsIdsFromPooledSequence() {
+    Planet first = planetService.create(new Planet("Tatooine", "arid", "desert")).block();
+    Planet second = planetService.create(new Planet("Alderaan", "temperate", "grassland")).block();
+
+    assertThat(first.getId()).isGreaterThanOrEqualTo(PlanetIdAllocator.INITIAL_VALUE);
+    assertThat(second.getId()).isEqualTo(first.getId() + 1);
+    assertThat(planetService.get(first.getId()).block()).isEqualTo(first);
+    assertThat(planetService.getByName("Alderaan").block()).isEqualTo(second);
+  }
+
+  @DisplayName("Teste de integração: Ids reservados não colidem com blocos retirados da sequência por outro nó")
+  @Test
+  public void createPlanet_DoesNotReuseBlocksDrawnElsewhere() {
+    Long other = databaseClient.sql("SELECT NEXT VALUE FOR planets_seq")
+        .map(row -> row.get(0, Long.class)).one().block();
+
+    List<Planet> created = Flux.range(0, PlanetIdAllocator.ALLOCATION_SIZE * 2)
+        .concatMap(i -> planetService.create(new Planet("planet " + i, "arid", "desert")))
+        .collectList().block();
+
+    assertThat(created).extracting(Planet::getId)
+        .doesNotHaveDuplicates()
+        .noneMatch(id -> id > other - PlanetIdAllocator.ALLOCATION_SIZE && id <= other);
+  }
+
+  @DisplayName("Teste de integração: Criando planeta com nome existente lançando exceção")
+  @Test
+  public void createPlanet_WithExistingName_ThrowsException() {
+    planetService.create(new Planet("Tatooine", "arid", "desert")).block();
+
+    StepVerifier.create(planetService.create(new Planet("Tatooine", "temperate", "grassland")))
+        .expectError(DataIntegrityViolationException.class)
+        .verify();
+  }
+
+  @DisplayName("Teste de integração: Listando planetas filtrados sem diferenciar maiúsculas e paginados por id")
+  @Test
+  public void listPlanets_ByFiltersAndKeyset_ReturnsMatchingPages() {
+    Planet tatooine = planetService.create(new Planet("Tatooine", "Arid", "Desert")).block();
+    Planet jakku = planetService.create(new Planet("Jakku", "arid", "desert")).block();
+    planetService.create(new Planet("Hoth", "frozen", "tundra")).block();
+
+    assertThat(planetService.list("DESERT", "arid").collectList().block()).containsExactly(tatooine, jakku);
+
+    Slice<Planet> page = planetService.list("desert", null, null, 1).block();
+    assertThat(page.getContent()).containsExactly(tatooine);
+    assertThat(page.hasNext()).isTrue();
+
+    Slice<Planet> last = planetService.list("desert", null, tatooine.getId(), 1).block();
+    assertThat(last.getContent()).containsExactly(jakku);
+    assertThat(last.hasNext()).isFalse();
+  }
+
+  @DisplayName("Teste de integração: Removendo planetas existentes e inexistentes")
+  @Test
+  public void removePlanet_RemovesOrThrowsWhenMissing() {
+    Planet planet = planetService.create(new Planet("Tatooine", "arid", "desert")).block();
+
+    planetService.remove(planet.getId()).block();
+
+    assertThat(planetService.get(planet.getId()).block()).isNull();
+    StepVerifier.create(planetService.remove(planet.getId()))
+        .expectError(EmptyResultDataAccessException.class)
+        .verify();
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.swplanetapi.reactive.load;
+
+import com.example.swplanetapi.reactive.domain.Planet;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closed-model load test: {@code load.connections} clients, each on its own keep-alive connection,
+ * send keyset page reads back to back. It drives the in-process reactive API unless
+ * {@code load.urls} lists running servers, in which case each is seeded through POST and driven the
+ * same way in turn, so the servlet and reactive stacks can be compared from separate JVMs.
+ *
+ * <pre>mvn verify -Pload-test -Dload.urls=http://localhost:8080,http://localhost:8081 -Dload.connections=5000</pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class PlanetLoadIT {
+    private static final String[] CLIMATES = {"arid", "temperate", "frozen", "murky", "tropical"};
+
+    private static final int CONNECTIONS = Integer.getInteger("load.connections", 5000);
+    private static final int PLANETS = Integer.getInteger("load.planets", 1000);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final Duration TIMEOUT = Duration.parse(System.getProperty("load.timeout", "PT2M"));
+    private static final String URLS = System.getProperty("load.urls", "");
+
+    @LocalServerPort
+    private int port;
+
+    @DisplayName("Teste de carga: Vazão e p99 da API reativa (e da API servlet, se informada) com conexões concorrentes")
+    @Test
+    public void listPlanets_UnderConcurrentConnections_ReportsThroughputAndLatency() {
+        List<String> targets = URLS.isBlank() ? List.of("http://localhost:" + port) : List.of(URLS.split(","));
+
+        for (String target : targets) {
+            // The client gets its own event loop so it does not queue behind the in-process server's.
+            LoopResources loops = LoopResources.create("load-client");
+            ConnectionProvider connections = ConnectionProvider.builder("load")
+                    .maxConnections(CONNECTIONS)
+                    .pendingAcquireMaxCount(-1)
+                    .pendingAcquireTimeout(TIMEOUT)
+                    .build();
+            try {
+                WebClient client = WebClient.builder()
+                        .baseUrl(target)
+                        .clientConnector(new ReactorClientHttpConnector(
+                                HttpClient.create(connections).runOn(loops).responseTimeout(TIMEOUT)))
+                        .build();
+                seed(client);
+                run(client, WARMUP);
+                Result result = run(client, DURATION);
+                System.out.printf("%s: %d connections, %.0f req/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms, %d errors%n",
+                        target, CONNECTIONS, result.throughput(), millis(result.latency().getValueAtPercentile(50)),
+                        millis(result.latency().getValueAtPercentile(99)), millis(result.latency().getMaxValue()),
+                        result.errors());
+
+                assertThat(result.errors()).isZero();
+                assertThat(result.latency().getTotalCount()).isPositive();
+            } finally {
+                connections.disposeLater().then(loops.disposeLater()).block();
+            }
+        }
+    }
+
+    private static void seed(WebClient client) {
+        String run = Long.toString(System.nanoTime(), 36);
+        Flux.range(0, PLANETS)
+                .flatMap(i -> client.post().uri("/planets")
+                        .bodyValue(new Planet("load " + run + " " + i, CLIMATES[i % CLIMATES.length], "desert"))
+                        .retrieve()
+                        .toBodilessEntity(), 16)
+                .blockLast();
+    }
+
+    private static Result run(WebClient client, Duration duration) {
+        Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        Flux.range(0, CONNECTIONS)
+                .flatMap(user -> Mono.defer(() -> request(client, CLIMATES[user % CLIMATES.length], latency, errors))
+                        .repeat(() -> System.nanoTime() < deadline), CONNECTIONS)
+                .blockLast();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(latency, errors.get(), latency.getTotalCount() / seconds);
+    }
+
+    private static Mono<Void> request(WebClient client, String climate, Histogram latency, AtomicLong errors) {
+        long sent = System.nanoTime();
+        return client.get().uri("/planets?climate={climate}&limit=20", climate)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .toBodilessEntity()
+                .doOnNext(response -> {
+                    if (response.getStatusCode() == HttpStatus.OK) {
+                        latency.recordValue(System.nanoTime() - sent);
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                })
+                .onErrorResume(ex -> {
+                    errors.incrementAndGet();
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private record Result(Histogram latency, long errors, double throughput) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.swplanetapi.reactive.web;
+
+import com.example.swplanetapi.reactive.domain.Planet;
+import com.example.swplanetapi.reactive.domain.PlanetService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(PlanetController.class)
+class PlanetControllerTest {
+    private static final Planet PLANET = new Planet("name", "climate", "terrain");
+    private static final Planet TATOOINE = new Planet(1L, "Tatooine", "arid", "desert");
+    private static final Planet ALDERAAN = new Planet(2L, "Alderran", "temperate", "grass");
+
+    @MockBean
+    private PlanetService planetService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DisplayName("Teste de integração: Criando planetas retornando com sucesso na controller reativa")
+    @Test
+    public void createPlanet_WithValidData_ReturnsPlanet() {
+        when(planetService.create(PLANET)).thenReturn(Mono.just(TATOOINE));
+
+        webTestClient.post().uri("/planets").bodyValue(PLANET).exchange()
+                .expectStatus().isCreated()
+                .expectBody(Planet.class).isEqualTo(TATOOINE);
+    }
+
+    @DisplayName("Teste de integração: Criando planetas com dados inválidos retornando 422 na controller reativa")
+    @Test
+    public void createPlanet_WithInvalidData_ReturnsUnprocessableEntity() {
+        webTestClient.post().uri("/planets").bodyValue(new Planet("", "", "")).exchange()
+                .expectStatus().isEqualTo(422);
+        webTestClient.post().uri("/planets").bodyValue(new Planet()).exchange()
+                .expectStatus().isEqualTo(422);
+    }
+
+    @DisplayName("Teste de integração: Criando planeta com nome existente retornando 409 na controller reativa")
+    @Test
+    public void createPlanet_WithExistingName_ReturnsConflict() {
+        when(planetService.create(any())).thenReturn(Mono.error(new DataIntegrityViolationException("duplicate")));
+
+        webTestClient.post().uri("/planets").bodyValue(PLANET).exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @DisplayName("Teste de integração: Buscando planetas por id e nome na controller reativa")
+    @Test
+    public void getPlanet_ByIdAndName_ReturnsPlanetOrNotFound() {
+        when(planetService.get(1L)).thenReturn(Mono.just(TATOOINE));
+        when(planetService.get(2L)).thenReturn(Mono.empty());
+        when(planetService.getByName("Tatooine")).thenReturn(Mono.just(TATOOINE));
+        when(planetService.getByName("Hoth")).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/planets/1").exchange()
+                .expectStatus().isOk().expectBody(Planet.class).isEqualTo(TATOOINE);
+        webTestClient.get().uri("/planets/2").exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/planets/name/Tatooine").exchange()
+                .expectStatus().isOk().expectBody(Planet.class).isEqualTo(TATOOINE);
+        webTestClient.get().uri("/planets/name/Hoth").exchange().expectStatus().isNotFound();
+    }
+
+    @DisplayName("Teste de integração: Listando planetas filtrados e paginados na controller reativa")
+    @Test
+    public void listPlanets_WithPageSize_ReturnsPageAndNextLink() {
+        when(planetService.list(isNull(), any())).thenReturn(Flux.just(TATOOINE, ALDERAAN));
+        when(planetService.list(null, null, null, 1))
+                .thenReturn(Mono.just(new SliceImpl<>(List.of(TATOOINE), Pageable.ofSize(1), true)));
+
+        webTestClient.get().uri("/planets").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Planet.class).isEqualTo(List.of(TATOOINE, ALDERAAN));
+        webTestClient.get().uri("/planets?limit=1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.LINK, containsString("after=" + PlanetCursor.encode(1L)))
+                .expectBodyList(Planet.class).isEqualTo(List.of(TATOOINE));
+    }
+
+    @DisplayName("Teste de integração: Exportando planetas em NDJSON na controller reativa")
+    @Test
+    public void exportPlanets_ReturnsOnePlanetPerLine() {
+        when(planetService.list("desert", null)).thenReturn(Flux.just(TATOOINE));
+
+        webTestClient.get().uri("/planets?terrain=desert").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Planet.class).isEqualTo(List.of(TATOOINE));
+    }
+
+    @DisplayName("Teste de integração: Listando planetas com cursor inválido retornando 400 na controller reativa")
+    @Test
+    public void listPlanets_WithInvalidCursor_ReturnsBadRequest() {
+        webTestClient.get().uri("/planets?after=not-a-cursor").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @DisplayName("Teste de integração: Removendo planetas existentes e inexistentes na controller reativa")
+    @Test
+    public void removePlanet_ReturnsNoContentOrNotFound() {
+        when(planetService.remove(1L)).thenReturn(Mono.empty());
+        when(planetService.remove(2L)).thenReturn(Mono.error(new EmptyResultDataAccessException(1)));
+
+        webTestClient.delete().uri("/planets/1").exchange().expectStatus().isNoContent();
+        webTestClient.delete().uri("/planets/2").exchange().expectStatus().isNotFound();
+    }
+}
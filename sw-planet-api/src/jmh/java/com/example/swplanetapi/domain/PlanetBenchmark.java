@@ -0,0 +1,47 @@
+package com.example.swplanetapi.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Example;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-level hot paths that run on every filtered listing and every comparison: building the
+ * query-by-example probe and {@link Planet#equals}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlanetBenchmark {
+
+    private final Planet filter = new Planet("Arid", "Desert");
+    private final Planet planet = new Planet(1L, "Tatooine", "arid", "desert");
+    private final Planet samePlanet = new Planet(1L, "Tatooine", "arid", "desert");
+    private final Planet otherPlanet = new Planet(2L, "Hoth", "frozen", "tundra");
+
+    @Benchmark
+    public Example<Planet> makeQuery() {
+        return QueryBuilder.makeQuery(filter);
+    }
+
+    @Benchmark
+    public boolean equalsSame() {
+        return planet.equals(samePlanet);
+    }
+
+    @Benchmark
+    public boolean equalsOther() {
+        return planet.equals(otherPlanet);
+    }
+}
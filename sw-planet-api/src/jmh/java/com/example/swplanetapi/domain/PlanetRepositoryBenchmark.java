@@ -0,0 +1,102 @@
+package com.example.swplanetapi.domain;
+
+import com.example.swplanetapi.SwPlanetApiApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PlanetRepository} with the full application context over an in-memory H2 database. The
+ * statement counts behind these paths are asserted in {@code PlanetRepositoryStatementsTest}; this
+ * measures what they take. Run with JMH's {@code -prof gc} to also see the bytes allocated per
+ * operation, where listing projections instead of entities shows most.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanetRepositoryBenchmark {
+    private static final int BATCH_PLANETS = 10_000;
+    private static final int LOOKUP_IDS = 100;
+    private static final Set<PlanetField> ID_AND_NAME = EnumSet.of(PlanetField.ID, PlanetField.NAME);
+
+    private ConfigurableApplicationContext context;
+    private PlanetRepository planetRepository;
+    private List<Long> ids;
+    private long batches;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SwPlanetApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh-repository;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        planetRepository = context.getBean(PlanetRepository.class);
+        ids = planetRepository.insertAll(planets("lookup", LOOKUP_IDS)).stream().map(Planet::getId).toList();
+        planetRepository.insertAll(planets("listing", BATCH_PLANETS));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Planet> insertAll() {
+        return planetRepository.insertAll(planets("batch " + batches++, BATCH_PLANETS));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Planet> findByIdOneByOne() {
+        List<Planet> planets = new ArrayList<>(LOOKUP_IDS);
+        ids.forEach(id -> planetRepository.findById(id).ifPresent(planets::add));
+        return planets;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Iterable<Planet> findAllById() {
+        return planetRepository.findAllById(ids);
+    }
+
+    @Benchmark
+    public List<Planet> findAllEntities() {
+        return planetRepository.findAll(QueryBuilder.makeQuery(new Planet()));
+    }
+
+    @Benchmark
+    public List<PlanetProjection> findProjectedIdAndName() {
+        return planetRepository.findProjectedAfter(QueryBuilder.makeQuery(new Planet()), ID_AND_NAME, null, null);
+    }
+
+    private static List<Planet> planets(String prefix, int count) {
+        List<Planet> planets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            planets.add(new Planet(prefix + " planet " + i, "climate-" + (i % 7), "terrain-" + (i % 11)));
+        }
+        return planets;
+    }
+}
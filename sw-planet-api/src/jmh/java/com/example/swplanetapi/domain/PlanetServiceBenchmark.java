@@ -0,0 +1,99 @@
+package com.example.swplanetapi.domain;
+
+import com.example.swplanetapi.SwPlanetApiApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PlanetService} with the full application context over an in-memory H2 database seeded
+ * with {@link #PLANETS} planets. Lookups by id and name are served by the cache once warm; listings
+ * and creates go to the database. {@link #metrics} switches the repository timers and Hibernate
+ * statistics off to show what they cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanetServiceBenchmark {
+    private static final int PLANETS = 10_000;
+    private static final String[] CLIMATES = {"arid", "temperate", "frozen", "murky", "tropical"};
+
+    @Param({"true", "false"})
+    private boolean metrics;
+
+    private ConfigurableApplicationContext context;
+    private PlanetService planetService;
+    private long firstId;
+    private long created;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SwPlanetApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--management.metrics.data.repository.autotime.enabled=" + metrics,
+                        "--spring.jpa.properties.hibernate.generate_statistics=" + metrics);
+        planetService = context.getBean(PlanetService.class);
+
+        List<Planet> planets = new ArrayList<>(PLANETS);
+        for (int i = 0; i < PLANETS; i++) {
+            planets.add(new Planet("planet " + i, CLIMATES[i % CLIMATES.length], "desert"));
+        }
+        firstId = planetService.createAll(planets).get(0).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Planet> get() {
+        return planetService.get(firstId + PLANETS / 2);
+    }
+
+    @Benchmark
+    public Optional<Planet> getByName() {
+        return planetService.getByName("planet " + PLANETS / 2);
+    }
+
+    @Benchmark
+    public Optional<Planet> getByMissingName() {
+        return planetService.getByName("not a planet");
+    }
+
+    @Benchmark
+    public Slice<Planet> listPage() {
+        return planetService.list("desert", "Arid", firstId + PLANETS / 2, 20);
+    }
+
+    @Benchmark
+    public Planet create() {
+        return planetService.create(new Planet("created " + created++, "arid", "desert"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.Planet;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request and response bodies of the planets API, through an {@link ObjectMapper} configured the
+ * way Spring MVC configures its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanetJsonBenchmark {
+    private static final TypeReference<List<Planet>> PLANET_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private Planet planet;
+    private String planetJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        planet = new Planet(1000L, "Tatooine", "arid", "desert");
+        planetJson = objectMapper.writeValueAsString(planet);
+    }
+
+    /** A page of planets; kept apart so the single-planet benchmarks are not repeated per size. */
+    @State(Scope.Benchmark)
+    public static class PlanetList {
+        @Param({"20", "1000"})
+        private int size;
+
+        private List<Planet> planets;
+        private String json;
+
+        @Setup
+        public void setUp(PlanetJsonBenchmark benchmark) throws JsonProcessingException {
+            planets = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                planets.add(new Planet(1000L + i, "planet " + i, "temperate", "grasslands, mountains"));
+            }
+            json = benchmark.objectMapper.writeValueAsString(planets);
+        }
+    }
+
+    @Benchmark
+    public String writePlanet() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(planet);
+    }
+
+    @Benchmark
+    public Planet readPlanet() throws JsonProcessingException {
+        return objectMapper.readValue(planetJson, Planet.class);
+    }
+
+    @Benchmark
+    public String writePlanetList(PlanetList list) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(list.planets);
+    }
+
+    @Benchmark
+    public List<Planet> readPlanetList(PlanetList list) throws JsonProcessingException {
+        return objectMapper.readValue(list.json, PLANET_LIST);
+    }
+}
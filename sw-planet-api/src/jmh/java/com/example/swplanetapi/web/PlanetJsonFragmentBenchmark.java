@@ -0,0 +1,103 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.Planet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 100k-planet JSON list written by Jackson and assembled from warm cached fragments by
+ * {@link PlanetJsonFragmentHttpMessageConverter}, into a stream that only counts the bytes. Run with
+ * JMH's {@code -prof gc} to compare the allocation as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanetJsonFragmentBenchmark {
+    private static final int PLANETS = 100_000;
+    private static final Type PLANET_LIST = ResolvableType.forClassWithGenerics(List.class, Planet.class).getType();
+
+    @Param({"jackson", "fragments"})
+    private String writer;
+
+    private GenericHttpMessageConverter<Object> converter;
+    private List<Planet> planets;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        converter = writer.equals("jackson")
+                ? new MappingJackson2HttpMessageConverter(objectMapper)
+                : new PlanetJsonFragmentHttpMessageConverter(objectMapper, 64L * 1024 * 1024, new SimpleMeterRegistry());
+
+        planets = new ArrayList<>(PLANETS);
+        for (int i = 0; i < PLANETS; i++) {
+            Planet planet = new Planet(1000L + i, "planet " + i, "arid", "desert");
+            ReflectionTestUtils.setField(planet, "version", 0L);
+            planets.add(planet);
+        }
+        // Fills the fragment cache, so the measurement is of the warm path every later response takes.
+        write();
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        CountingMessage output = new CountingMessage();
+        converter.write(planets, PLANET_LIST, MediaType.APPLICATION_JSON, output);
+        return output.bytes;
+    }
+
+    // Stands in for the servlet stream: counts what would go on the wire and keeps none of it.
+    private static final class CountingMessage extends OutputStream implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return this;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.Planet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A 10k-planet list through the message converter of each wire format, with and without the gzip
+ * that Tomcat applies to large responses. The size on the wire of each combination is printed
+ * once per trial, next to the timings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlanetWireFormatBenchmark {
+    private static final int PLANETS = 10_000;
+    private static final Type PLANET_LIST = ResolvableType.forClassWithGenerics(List.class, Planet.class).getType();
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private GenericHttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private List<Planet> planets;
+    private byte[] body;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        converter = (GenericHttpMessageConverter<Object>) (GenericHttpMessageConverter<?>) switch (format) {
+            case "json" -> new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+            case "cbor" -> new MappingJackson2CborHttpMessageConverter();
+            case "smile" -> new MappingJackson2SmileHttpMessageConverter();
+            case "protobuf" -> new PlanetProtobufHttpMessageConverter();
+            default -> throw new IllegalArgumentException(format);
+        };
+        mediaType = converter.getSupportedMediaTypes().get(0);
+
+        planets = new ArrayList<>(PLANETS);
+        for (int i = 0; i < PLANETS; i++) {
+            planets.add(new Planet(1000L + i, "planet " + i, "temperate", "grasslands, mountains"));
+        }
+        body = write();
+        System.out.printf("%n%s/%s: %d bytes for %d planets%n", format, encoding, body.length, PLANETS);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStream wire = encoding.equals("gzip") ? new GZIPOutputStream(bytes) : bytes;
+        converter.write(planets, PLANET_LIST, mediaType, new WireMessage(wire, new HttpHeaders()));
+        wire.close();
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        InputStream wire = new ByteArrayInputStream(body);
+        if (encoding.equals("gzip")) {
+            wire = new GZIPInputStream(wire);
+        }
+        return converter.read(PLANET_LIST, null, new MockHttpInputMessage(wire));
+    }
+
+    private record WireMessage(OutputStream body, HttpHeaders headers) implements HttpOutputMessage {
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
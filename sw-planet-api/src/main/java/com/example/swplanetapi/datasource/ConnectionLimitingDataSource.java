@@ -0,0 +1,117 @@
+package com.example.swplanetapi.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Admits at most as many callers as the pool has connections, queueing the rest on a fair
+ * semaphore. With virtual threads there is no request thread limit left in front of the pool, so
+ * thousands of requests can ask for a connection at once; here they park cheaply and in arrival
+ * order, and the pool only ever sees callers it can serve right away. A caller that cannot get a
+ * permit within the pool's connection timeout fails the same way a pool timeout would.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource implements Closeable {
+  private final Semaphore permits;
+  private final int maxConnections;
+  private final Duration timeout;
+
+  public ConnectionLimitingDataSource(DataSource target, int maxConnections, Duration timeout) {
+    super(target);
+    this.permits = new Semaphore(maxConnections, true);
+    this.maxConnections = maxConnections;
+    this.timeout = timeout;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return releasingOnClose(obtainTargetDataSource().getConnection());
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  /** Callers currently waiting for a permit. */
+  public int getWaiting() {
+    return permits.getQueueLength();
+  }
+
+  /** Closes the target if it is a pool this data source owns. */
+  @Override
+  public void close() throws IOException {
+    if (obtainTargetDataSource() instanceof Closeable closeable) {
+      closeable.close();
+    }
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException("No connection available after " + timeout.toMillis()
+            + "ms; all " + maxConnections + " are in use and " + permits.getQueueLength() + " callers are waiting");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection", ex);
+    }
+  }
+
+  // Compares by proxy identity and gives the permit back on the first close only.
+  private Connection releasingOnClose(Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    InvocationHandler handler = (proxy, method, args) -> {
+      if (method.getName().equals("equals")) {
+        return proxy == args[0];
+      }
+      if (method.getName().equals("hashCode")) {
+        return System.identityHashCode(proxy);
+      }
+      if (!method.getName().equals("close") || !released.compareAndSet(false, true)) {
+        return invoke(connection, method, args);
+      }
+      try {
+        return invoke(connection, method, args);
+      } finally {
+        permits.release();
+      }
+    };
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+        handler);
+  }
+
+  private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(connection, args);
+    } catch (InvocationTargetException ex) {
+      throw ex.getTargetException();
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.swplanetapi.datasource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.example.swplanetapi.threads.VirtualThreadConfiguration;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the auto-configured pool with the primary pool plus one pool per configured replica,
+ * routed per transaction. Without replicas every connection still comes from the primary, and the
+ * lazy proxy keeps transactions that never run a statement from taking a connection at all. In
+ * virtual-thread mode each pool is fronted by a {@link ConnectionLimitingDataSource}.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceRoutingConfiguration {
+  private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  public RoutingDataSource routingDataSource(HikariDataSource primaryDataSource, ReplicaProperties properties,
+      @Value("${" + VirtualThreadConfiguration.ENABLED + ":false}") boolean virtualThreads) {
+    List<DataSource> replicas = new ArrayList<>();
+    for (ReplicaProperties.Replica replica : properties.getReplicas()) {
+      HikariDataSource pool = DataSourceBuilder.create()
+          .type(HikariDataSource.class)
+          .url(replica.getUrl())
+          .username(replica.getUsername())
+          .password(replica.getPassword())
+          .build();
+      pool.setPoolName("replica-" + replicas.size());
+      pool.setReadOnly(true);
+      replicas.add(virtualThreads ? limited(pool) : pool);
+    }
+    DataSource primary = virtualThreads ? limited(primaryDataSource) : primaryDataSource;
+    return new RoutingDataSource(primary, replicas, properties.getSelection());
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(RoutingDataSource routingDataSource) {
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+
+  private static DataSource limited(HikariDataSource pool) {
+    // An unset maximum reads as -1 until the pool starts, when Hikari applies its default of 10.
+    int maxConnections = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+    return new ConnectionLimitingDataSource(pool, maxConnections, Duration.ofMillis(pool.getConnectionTimeout()));
+  }
+
+  /** Publishes the {@code hikaricp.*} pool metrics of replicas too, which Boot only binds for beans. */
+  @Bean
+  public MeterBinder routedPoolMetrics(RoutingDataSource routingDataSource) {
+    return registry -> routingDataSource.getResolvedDataSources().values().forEach(dataSource -> {
+      HikariDataSource pool = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+      if (pool != null && pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null) {
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+      }
+    });
+  }
+
+  @Bean
+  public ReadYourWritesFilter readYourWritesFilter(ReplicaProperties properties) {
+    return new ReadYourWritesFilter(properties.getReadYourWritesWindow(), Clock.systemUTC());
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.swplanetapi.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing state. A thread is pinned to the primary when its client wrote recently, and
+ * records its own writes so later reads in the same request see them. Writes are only recorded
+ * between {@link #track()} and {@link #reset()}, which {@link ReadYourWritesFilter} calls around each
+ * request: importer, scheduler and async threads are pooled and never reset, and a write there
+ * would otherwise keep every later read on that thread on the primary.
+ */
+public final class ReadYourWrites {
+  private static final ThreadLocal<Boolean> PINNED = ThreadLocal.withInitial(() -> false);
+  private static final ThreadLocal<Boolean> WROTE = ThreadLocal.withInitial(() -> false);
+  private static final ThreadLocal<Boolean> TRACKING = ThreadLocal.withInitial(() -> false);
+
+  private ReadYourWrites() {
+  }
+
+  /** Runs the action with every read, including read-only transactions, going to the primary. */
+  public static <T> T onPrimary(Supplier<T> action) {
+    boolean pinned = PINNED.get();
+    PINNED.set(true);
+    try {
+      return action.get();
+    } finally {
+      PINNED.set(pinned);
+    }
+  }
+
+  static void pin() {
+    PINNED.set(true);
+  }
+
+  static boolean isPinned() {
+    return PINNED.get() || WROTE.get();
+  }
+
+  static void track() {
+    TRACKING.set(true);
+  }
+
+  static void recordWrite() {
+    if (TRACKING.get()) {
+      WROTE.set(true);
+    }
+  }
+
+  static boolean wrote() {
+    return WROTE.get();
+  }
+
+  static void reset() {
+    PINNED.remove();
+    WROTE.remove();
+    TRACKING.remove();
+  }
+}
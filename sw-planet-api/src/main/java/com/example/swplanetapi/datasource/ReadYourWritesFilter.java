@@ -0,0 +1,110 @@
+package com.example.swplanetapi.datasource;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Clock;
+import java.time.Duration;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Read-your-writes across requests: once a request has written to the primary, the client gets a
+ * cookie holding the end of the stickiness window, and its requests stay on the primary until then.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+  static final String COOKIE = "planets-primary-until";
+
+  private final Duration window;
+  private final Clock clock;
+
+  public ReadYourWritesFilter(Duration window, Clock clock) {
+    this.window = window;
+    this.clock = clock;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    ReadYourWrites.track();
+    if (stickyUntil(request) > clock.millis()) {
+      ReadYourWrites.pin();
+    }
+    StickyResponse sticky = new StickyResponse(response);
+    try {
+      chain.doFilter(request, sticky);
+      if (!response.isCommitted()) {
+        sticky.stickIfWritten();
+      }
+    } finally {
+      ReadYourWrites.reset();
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  private static long stickyUntil(HttpServletRequest request) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return 0;
+    }
+    for (Cookie cookie : cookies) {
+      if (COOKIE.equals(cookie.getName())) {
+        try {
+          return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException ex) {
+          return 0;
+        }
+      }
+    }
+    return 0;
+  }
+
+  /** Adds the cookie right before the body starts, which is after the handler has done its writes. */
+  private final class StickyResponse extends HttpServletResponseWrapper {
+    private boolean stuck;
+
+    StickyResponse(HttpServletResponse response) {
+      super(response);
+    }
+
+    void stickIfWritten() {
+      if (!stuck && ReadYourWrites.wrote()) {
+        Cookie cookie = new Cookie(COOKIE, Long.toString(clock.millis() + window.toMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+        addCookie(cookie);
+        stuck = true;
+      }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      stickIfWritten();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      stickIfWritten();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      stickIfWritten();
+      super.flushBuffer();
+    }
+  }
+}
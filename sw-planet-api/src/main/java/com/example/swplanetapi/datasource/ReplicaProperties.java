@@ -0,0 +1,73 @@
+package com.example.swplanetapi.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("planets.datasource")
+public class ReplicaProperties {
+
+  /** Read replicas of {@code spring.datasource}; read-only transactions are spread over them. */
+  private List<Replica> replicas = new ArrayList<>();
+
+  private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+
+  /** How long a client that wrote keeps reading from the primary, to hide replication lag. */
+  private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+  public List<Replica> getReplicas() {
+    return replicas;
+  }
+
+  public void setReplicas(List<Replica> replicas) {
+    this.replicas = replicas;
+  }
+
+  public ReplicaSelection getSelection() {
+    return selection;
+  }
+
+  public void setSelection(ReplicaSelection selection) {
+    this.selection = selection;
+  }
+
+  public Duration getReadYourWritesWindow() {
+    return readYourWritesWindow;
+  }
+
+  public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+    this.readYourWritesWindow = readYourWritesWindow;
+  }
+
+  public static class Replica {
+    private String url;
+    private String username;
+    private String password;
+
+    public String getUrl() {
+      return url;
+    }
+
+    public void setUrl(String url) {
+      this.url = url;
+    }
+
+    public String getUsername() {
+      return username;
+    }
+
+    public void setUsername(String username) {
+      this.username = username;
+    }
+
+    public String getPassword() {
+      return password;
+    }
+
+    public void setPassword(String password) {
+      this.password = password;
+    }
+  }
+}
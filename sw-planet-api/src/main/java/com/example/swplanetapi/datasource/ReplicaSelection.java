@@ -0,0 +1,50 @@
+package com.example.swplanetapi.datasource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+public enum ReplicaSelection {
+  ROUND_ROBIN {
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    int choose(List<DataSource> replicas) {
+      return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+  },
+
+  /** Picks the replica pool with the fewest connections in use; pools that are not Hikari count as idle. */
+  LEAST_CONNECTIONS {
+    @Override
+    int choose(List<DataSource> replicas) {
+      int chosen = 0;
+      int fewest = Integer.MAX_VALUE;
+      for (int i = 0; i < replicas.size(); i++) {
+        int active = activeConnections(replicas.get(i));
+        if (active < fewest) {
+          chosen = i;
+          fewest = active;
+        }
+      }
+      return chosen;
+    }
+
+    private int activeConnections(DataSource replica) {
+      if (replica instanceof ConnectionLimitingDataSource limited) {
+        replica = limited.getTargetDataSource();
+      }
+      if (replica instanceof HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+      }
+      return 0;
+    }
+  };
+
+  abstract int choose(List<DataSource> replicas);
+}
@@ -0,0 +1,63 @@
+package com.example.swplanetapi.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ *
+ * <p>The transaction's read-only flag is only published after the transaction manager has asked for
+ * a connection, so this must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that defers the lookup to the first statement.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+  private static final String PRIMARY = "primary";
+
+  private final List<DataSource> replicas;
+  private final ReplicaSelection selection;
+
+  public RoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaSelection selection) {
+    this.replicas = List.copyOf(replicas);
+    this.selection = selection;
+
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < this.replicas.size(); i++) {
+      targets.put(i, this.replicas.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+    setLenientFallback(false);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    if (readOnly && !replicas.isEmpty() && !ReadYourWrites.isPinned()) {
+      return selection.choose(replicas);
+    }
+    if (!readOnly && TransactionSynchronizationManager.isActualTransactionActive()) {
+      ReadYourWrites.recordWrite();
+    }
+    return PRIMARY;
+  }
+
+  /** Closes the replica pools this data source owns; the primary is managed by the context. */
+  @Override
+  public void close() throws IOException {
+    for (DataSource replica : replicas) {
+      if (replica instanceof Closeable closeable) {
+        closeable.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package com.example.swplanetapi.domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.example.swplanetapi.datasource.ReadYourWrites;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Example;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Base for in-memory structures derived from the planets table.
+ *
+ * <p>The contents are loaded by streaming the table once the context is up, before the web server
+ * starts accepting requests, and are then kept current from {@link PlanetCreatedEvent} and
+ * {@link PlanetRemovedEvent}. {@link #rebuild()} loads fresh contents in the background of ongoing
+ * writes and replays the events that arrived meanwhile before swapping them in; it also runs
+ * shortly after a {@link PlanetsChangedUntrackedEvent}.
+ *
+ * <p>A write may commit before the load's snapshot and still publish its event after recording
+ * started, and contents such as counters cannot take the same event twice. The load and the replay
+ * therefore share one repeatable-read snapshot: the replay reads the rows the missed events touched
+ * as the load saw them and applies an event only if it follows on from that state.
+ */
+public abstract class InMemoryPlanetIndex<C extends InMemoryPlanetIndex.Contents> implements SmartInitializingSingleton {
+  private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+  private final PlanetRepository planetRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private C contents;
+  private List<Object> missedDuringRebuild;
+  private volatile boolean stale;
+
+  protected InMemoryPlanetIndex(PlanetRepository planetRepository, PlatformTransactionManager transactionManager) {
+    this.planetRepository = planetRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    this.contents = newContents(0);
+    this.contents.loaded();
+  }
+
+  /**
+   * Creates empty contents sized for the given number of planets. Also called from the constructor,
+   * so it must not rely on subclass fields.
+   */
+  protected abstract C newContents(long expectedSize);
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    rebuild();
+  }
+
+  public synchronized void rebuild() {
+    lock.writeLock().lock();
+    try {
+      missedDuringRebuild = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    try {
+      // On the primary: a lagging replica could miss writes made just before the rebuild started.
+      ReadYourWrites.onPrimary(() -> readOnlyTransaction.execute(status -> {
+        C rebuilt = load(planetRepository);
+        rebuilt.loaded();
+        swap(rebuilt);
+        return rebuilt;
+      }));
+    } catch (RuntimeException ex) {
+      swap(null);
+      throw ex;
+    }
+  }
+
+  /** Reads fresh contents inside the rebuild's read-only transaction; by default streams the whole table. */
+  protected C load(PlanetRepository planetRepository) {
+    C loading = newContents(planetRepository.count());
+    try (Stream<Planet> planets = planetRepository.streamAll(Example.of(new Planet()))) {
+      planets.forEach(loading::add);
+    }
+    return loading;
+  }
+
+  /** Called under the write lock once rebuilt contents, caught up with the events, replace the previous ones. */
+  protected void rebuilt(C previous, C current) {
+  }
+
+  @EventListener
+  public void onChangedUntracked(PlanetsChangedUntrackedEvent event) {
+    stale = true;
+  }
+
+  @Scheduled(fixedDelayString = "${planets.indexes.stale-check-interval:PT5S}")
+  public void rebuildIfStale() {
+    if (stale) {
+      stale = false;
+      rebuild();
+    }
+  }
+
+  @EventListener
+  public void onCreated(PlanetCreatedEvent event) {
+    record(event);
+  }
+
+  @EventListener
+  public void onRemoved(PlanetRemovedEvent event) {
+    record(event);
+  }
+
+  protected <R> R read(Function<C, R> reader) {
+    lock.readLock().lock();
+    try {
+      return reader.apply(contents);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Replays the events missed while loading onto the new contents and publishes them, or just stops recording. */
+  private void swap(C rebuilt) {
+    lock.writeLock().lock();
+    try {
+      if (rebuilt != null) {
+        replay(rebuilt, missedDuringRebuild);
+        C previous = contents;
+        contents = rebuilt;
+        rebuilt(previous, rebuilt);
+      }
+      missedDuringRebuild = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Applies the missed events the loaded snapshot does not already reflect. Starting from each
+   * planet's row in the snapshot, a creation applies only while the planet is absent and a removal
+   * only of the planet as it currently stands, so the contents never take a change twice.
+   */
+  private void replay(C rebuilt, List<Object> missed) {
+    if (missed.isEmpty()) {
+      return;
+    }
+    List<Long> ids = missed.stream().map(change -> planet(change).getId()).distinct().toList();
+    Map<Long, Planet> states = new HashMap<>();
+    for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+      int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size());
+      planetRepository.findAllById(ids.subList(from, to)).forEach(planet -> states.put(planet.getId(), planet));
+    }
+
+    for (Object change : missed) {
+      Planet planet = planet(change);
+      Planet state = states.get(planet.getId());
+      if (change instanceof PlanetCreatedEvent && state == null) {
+        apply(rebuilt, change);
+        states.put(planet.getId(), planet);
+      } else if (change instanceof PlanetRemovedEvent && planet.equals(state)) {
+        apply(rebuilt, change);
+        states.remove(planet.getId());
+      }
+    }
+  }
+
+  private static Planet planet(Object change) {
+    return change instanceof PlanetCreatedEvent created ? created.planet() : ((PlanetRemovedEvent) change).planet();
+  }
+
+  private void record(Object change) {
+    lock.writeLock().lock();
+    try {
+      apply(contents, change);
+      if (missedDuringRebuild != null) {
+        missedDuringRebuild.add(change);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static void apply(Contents contents, Object change) {
+    if (change instanceof PlanetCreatedEvent created) {
+      contents.add(created.planet());
+    } else if (change instanceof PlanetRemovedEvent removed) {
+      contents.remove(removed.planet());
+    }
+  }
+
+  /** Mutable contents; only ever touched under the index's write lock or before publication. */
+  protected interface Contents {
+    void add(Planet planet);
+
+    void remove(Planet planet);
+
+    /** Called once after the initial load, before any other change; empty contents are loaded right away. */
+    default void loaded() {
+    }
+  }
+}
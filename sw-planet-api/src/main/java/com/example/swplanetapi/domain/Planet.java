@@ -2,15 +2,26 @@ package com.example.swplanetapi.domain;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
+import java.util.Locale;
 
 import com.example.swplanetapi.jacoco.ExcludeFromJacocoGeneratedReport;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
+// Updates set only the columns that changed (plus the version) instead of every column.
 @Entity
-@Table(name = "planets")
+@DynamicUpdate
+@Table(name = "planets", indexes = {
+        @Index(name = "idx_planets_climate_terrain", columnList = "climate_key, terrain_key"),
+        @Index(name = "idx_planets_terrain", columnList = "terrain_key")
+})
 public class Planet {
+  // Pooled sequence rather than IDENTITY so Hibernate can batch inserts; ids below the initial value
+  // are left to fixtures such as import_planets.sql.
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "planets_seq")
+  @SequenceGenerator(name = "planets_seq", sequenceName = "planets_seq", initialValue = 1000, allocationSize = 50)
   private Long id;
 
   @NotEmpty
@@ -25,6 +36,22 @@ public class Planet {
   @Column(nullable = false)
   private String terrain;
 
+  // Lower-cased copies maintained by the database so case-insensitive filters can use an index.
+  @Column(name = "climate_key", insertable = false, updatable = false,
+          columnDefinition = "varchar(255) generated always as (lower(climate))")
+  private String climateKey;
+
+  @Column(name = "terrain_key", insertable = false, updatable = false,
+          columnDefinition = "varchar(255) generated always as (lower(terrain))")
+  private String terrainKey;
+
+  // Bumped by Hibernate on every update; the web layer derives ETags from it. The default covers
+  // rows inserted outside Hibernate.
+  @Version
+  @JsonIgnore
+  @Column(nullable = false, columnDefinition = "bigint default 0")
+  private Long version;
+
   public Planet() {
   }
 
@@ -46,6 +73,30 @@ public class Planet {
     this.terrain = terrain;
   }
 
+  static Planet filterProbe(String climate, String terrain) {
+    Planet probe = new Planet();
+    probe.climateKey = normalize(climate);
+    probe.terrainKey = normalize(terrain);
+    return probe;
+  }
+
+  /** Copies the non-null name, climate and terrain of {@code changes} onto this planet. */
+  void apply(Planet changes) {
+    if (changes.name != null) {
+      name = changes.name;
+    }
+    if (changes.climate != null) {
+      climate = changes.climate;
+    }
+    if (changes.terrain != null) {
+      terrain = changes.terrain;
+    }
+  }
+
+  static String normalize(String value) {
+    return value == null ? null : value.toLowerCase(Locale.ROOT);
+  }
+
   public Long getId() {
     return id;
   }
@@ -78,9 +129,13 @@ public class Planet {
     this.terrain = terrain;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
   @Override
   public boolean equals(Object obj) {
-    return EqualsBuilder.reflectionEquals(obj, this);
+    return EqualsBuilder.reflectionEquals(obj, this, "climateKey", "terrainKey", "version");
   }
 
   @ExcludeFromJacocoGeneratedReport
@@ -0,0 +1,123 @@
+package com.example.swplanetapi.domain;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded read-through cache for planet lookups.
+ *
+ * <p>Names only map to ids and are always resolved through {@code planetsById}, so evicting or
+ * invalidating the id entry is enough to stop a planet from being served by name as well. Lookups
+ * that found nothing are remembered separately with a shorter TTL.
+ *
+ * <p>Every eviction moves a generation. Planets read from the database are cached with
+ * {@link #putLoaded(Planet, long)} against the generation taken before the read, so a load that
+ * raced a delete or an update cannot put back the row it read after that row was evicted. Name
+ * lookups do not know the id before reading, so the generation covers the whole cache: an eviction
+ * of any planet makes the loads in flight at that moment skip caching what they read.
+ */
+@Component
+public class PlanetCache {
+
+  private final Cache<Long, Planet> planetsById;
+  private final Cache<String, Long> idsByName;
+  private final Cache<Object, Boolean> misses;
+  private final AtomicLong evictions = new AtomicLong();
+
+  public PlanetCache(@Value("${planets.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${planets.cache.ttl:10m}") Duration ttl,
+                     @Value("${planets.cache.negative-ttl:30s}") Duration negativeTtl,
+                     MeterRegistry meterRegistry) {
+    this.planetsById = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    this.idsByName = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    this.misses = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(negativeTtl)
+        .recordStats()
+        .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, planetsById, "planetsById");
+    CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "planetIdsByName");
+    CaffeineCacheMetrics.monitor(meterRegistry, misses, "planetMisses");
+  }
+
+  public Planet getById(Long id) {
+    return planetsById.getIfPresent(id);
+  }
+
+  public Planet getByName(String name) {
+    Long id = idsByName.getIfPresent(name);
+    if (id == null) {
+      return null;
+    }
+    Planet planet = planetsById.getIfPresent(id);
+    return planet != null && name.equals(planet.getName()) ? planet : null;
+  }
+
+  public boolean isMissing(Long id) {
+    return misses.getIfPresent(id) != null;
+  }
+
+  public boolean isMissing(String name) {
+    return misses.getIfPresent(name) != null;
+  }
+
+  public void put(Planet planet) {
+    planetsById.put(planet.getId(), planet);
+    idsByName.put(planet.getName(), planet.getId());
+    evictMisses(planet);
+  }
+
+  /** Taken before reading planets from the database, for {@link #putLoaded(Planet, long)}. */
+  public long generation() {
+    return evictions.get();
+  }
+
+  /** Caches a planet read from the database unless something was evicted since {@code generation}. */
+  public void putLoaded(Planet planet, long generation) {
+    put(planet);
+    // An eviction racing this put is either seen here or comes after it and removes the entry itself.
+    if (evictions.get() != generation) {
+      planetsById.asMap().remove(planet.getId(), planet);
+    }
+  }
+
+  public void evictMisses(Planet planet) {
+    misses.invalidate(planet.getId());
+    misses.invalidate(planet.getName());
+  }
+
+  public void putMissing(Long id) {
+    misses.put(id, Boolean.TRUE);
+  }
+
+  public void putMissing(String name) {
+    misses.put(name, Boolean.TRUE);
+  }
+
+  public void evict(Long id) {
+    evictions.incrementAndGet();
+    planetsById.invalidate(id);
+  }
+
+  public void evictAll() {
+    evictions.incrementAndGet();
+    planetsById.invalidateAll();
+    idsByName.invalidateAll();
+  }
+}
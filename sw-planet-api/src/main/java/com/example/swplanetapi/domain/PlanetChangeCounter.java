@@ -0,0 +1,47 @@
+package com.example.swplanetapi.domain;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Modification counter for the planets table, so a list can be revalidated without querying it.
+ *
+ * <p>It moves on every {@link PlanetCreatedEvent} and {@link PlanetRemovedEvent}, which are only
+ * published once the write has committed; a reader that takes the value before querying therefore
+ * never pairs it with older rows. Each start picks a random epoch, so values from an earlier run or
+ * another instance never compare equal. Writes that bypass this instance (other instances, the
+ * reactive API, plain SQL) are only seen once a reconcile of {@link PlanetCounts} finds the counts
+ * changed.
+ */
+@Component
+public class PlanetChangeCounter {
+  private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+  private final AtomicLong changes = new AtomicLong();
+
+  @EventListener
+  public void onCreated(PlanetCreatedEvent event) {
+    changes.incrementAndGet();
+  }
+
+  @EventListener
+  public void onRemoved(PlanetRemovedEvent event) {
+    changes.incrementAndGet();
+  }
+
+  @EventListener
+  public void onChangedUntracked(PlanetsChangedUntrackedEvent event) {
+    changes.incrementAndGet();
+  }
+
+  /** Moves the counter for changes that arrived without an event. */
+  public void changedElsewhere() {
+    changes.incrementAndGet();
+  }
+
+  public String current() {
+    return epoch + "-" + changes.get();
+  }
+}
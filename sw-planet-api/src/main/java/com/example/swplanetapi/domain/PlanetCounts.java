@@ -0,0 +1,139 @@
+package com.example.swplanetapi.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.example.swplanetapi.domain.PlanetRepository.ClimateTerrainCount;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Planet counts by climate, by terrain and by both, so statistics and filtered counts are answered
+ * without touching the table.
+ *
+ * <p>Climates and terrains are lower-cased, matching the case-insensitive list filters. The counts
+ * are loaded with a single GROUP BY rather than by streaming the planets, then follow the created
+ * and removed events of this instance; the periodic rebuild reconciles them with the database,
+ * picking up writes made elsewhere, and moves the {@link PlanetChangeCounter} when that changed any
+ * count so list and statistics ETags taken before are no longer current. Each count is a mutable long held by its map entry, so applying
+ * an event allocates nothing unless it brings a new climate or terrain.
+ */
+@Component
+public class PlanetCounts extends InMemoryPlanetIndex<PlanetCounts.Counts> {
+  private final PlanetChangeCounter changeCounter;
+
+  public PlanetCounts(PlanetRepository planetRepository, PlatformTransactionManager transactionManager,
+      PlanetChangeCounter changeCounter) {
+    super(planetRepository, transactionManager);
+    this.changeCounter = changeCounter;
+  }
+
+  @Override
+  protected Counts newContents(long expectedSize) {
+    return new Counts();
+  }
+
+  @Override
+  protected Counts load(PlanetRepository planetRepository) {
+    Counts counts = new Counts();
+    for (ClimateTerrainCount group : planetRepository.countByClimateAndTerrain()) {
+      counts.adjust(group.getClimate(), group.getTerrain(), group.getCount());
+    }
+    return counts;
+  }
+
+  @Override
+  protected void rebuilt(Counts previous, Counts current) {
+    if (!current.stats().equals(previous.stats())) {
+      changeCounter.changedElsewhere();
+    }
+  }
+
+  @Override
+  @Scheduled(initialDelayString = "${planets.stats.reconcile-interval:PT10M}",
+      fixedDelayString = "${planets.stats.reconcile-interval:PT10M}")
+  public void rebuild() {
+    super.rebuild();
+  }
+
+  public PlanetStats stats() {
+    return read(Counts::stats);
+  }
+
+  /** Planets whose climate and terrain equal the given ones, ignoring case; null matches anything. */
+  public long count(String climate, String terrain) {
+    return read(counts -> counts.count(Planet.normalize(climate), Planet.normalize(terrain)));
+  }
+
+  static final class Counts implements InMemoryPlanetIndex.Contents {
+    private long total;
+    private final Map<String, Count> byClimate = new HashMap<>();
+    private final Map<String, Count> byTerrain = new HashMap<>();
+    private final Map<String, Map<String, Count>> byClimateAndTerrain = new HashMap<>();
+
+    @Override
+    public void add(Planet planet) {
+      adjust(Planet.normalize(planet.getClimate()), Planet.normalize(planet.getTerrain()), 1);
+    }
+
+    @Override
+    public void remove(Planet planet) {
+      adjust(Planet.normalize(planet.getClimate()), Planet.normalize(planet.getTerrain()), -1);
+    }
+
+    void adjust(String climate, String terrain, long delta) {
+      total += delta;
+      adjust(byClimate, climate, delta);
+      adjust(byTerrain, terrain, delta);
+      Map<String, Count> terrains = byClimateAndTerrain.computeIfAbsent(climate, key -> new HashMap<>());
+      adjust(terrains, terrain, delta);
+      if (terrains.isEmpty()) {
+        byClimateAndTerrain.remove(climate);
+      }
+    }
+
+    long count(String climate, String terrain) {
+      if (climate == null && terrain == null) {
+        return total;
+      }
+      if (terrain == null) {
+        return value(byClimate.get(climate));
+      }
+      if (climate == null) {
+        return value(byTerrain.get(terrain));
+      }
+      Map<String, Count> terrains = byClimateAndTerrain.get(climate);
+      return terrains == null ? 0 : value(terrains.get(terrain));
+    }
+
+    PlanetStats stats() {
+      Map<String, Map<String, Long>> pairs = new TreeMap<>();
+      byClimateAndTerrain.forEach((climate, terrains) -> pairs.put(climate, sorted(terrains)));
+      return new PlanetStats(total, sorted(byClimate), sorted(byTerrain), pairs);
+    }
+
+    private static void adjust(Map<String, Count> counts, String key, long delta) {
+      Count count = counts.computeIfAbsent(key, k -> new Count());
+      count.value += delta;
+      if (count.value <= 0) {
+        counts.remove(key);
+      }
+    }
+
+    private static long value(Count count) {
+      return count == null ? 0 : count.value;
+    }
+
+    private static Map<String, Long> sorted(Map<String, Count> counts) {
+      Map<String, Long> values = new TreeMap<>();
+      counts.forEach((key, count) -> values.put(key, count.value));
+      return values;
+    }
+  }
+
+  private static final class Count {
+    private long value;
+  }
+}
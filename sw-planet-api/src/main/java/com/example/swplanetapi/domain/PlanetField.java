@@ -0,0 +1,19 @@
+package com.example.swplanetapi.domain;
+
+/** Planet attributes a client can ask for; the id is always returned. */
+public enum PlanetField {
+  ID("id"),
+  NAME("name"),
+  CLIMATE("climate"),
+  TERRAIN("terrain");
+
+  private final String attribute;
+
+  PlanetField(String attribute) {
+    this.attribute = attribute;
+  }
+
+  public String attribute() {
+    return attribute;
+  }
+}
@@ -0,0 +1,4 @@
+package com.example.swplanetapi.domain;
+
+public record PlanetImportSummary(long read, long inserted, long skipped, long elapsedMillis) {
+}
@@ -0,0 +1,192 @@
+package com.example.swplanetapi.domain;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.validation.Validator;
+
+import com.example.swplanetapi.threads.VirtualThreadConfiguration;
+import com.example.swplanetapi.threads.VirtualThreads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk import that keeps memory bounded regardless of input size.
+ *
+ * <p>The calling thread reads rows into fixed-size chunks and hands them to a single writer thread
+ * through a small bounded queue; when the writer falls behind the queue fills up and reading
+ * pauses. Each chunk is inserted in its own transaction. Invalid rows and names that already
+ * exist are counted as skipped instead of failing the import.
+ */
+@Component
+public class PlanetImporter {
+  private static final List<Planet> END_OF_INPUT = Collections.unmodifiableList(new ArrayList<>());
+
+  private final PlanetRepository planetRepository;
+  private final PlanetCache planetCache;
+  private final PlanetNameFilter nameFilter;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Validator validator;
+  private final int chunkSize;
+  private final int queueCapacity;
+  private final ExecutorService writers;
+
+  public PlanetImporter(PlanetRepository planetRepository, PlanetCache planetCache, PlanetNameFilter nameFilter,
+                        ApplicationEventPublisher eventPublisher, Validator validator,
+                        @Value("${planets.import.chunk-size:1000}") int chunkSize,
+                        @Value("${planets.import.queue-capacity:2}") int queueCapacity,
+                        @Value("${" + VirtualThreadConfiguration.ENABLED + ":false}") boolean virtualThreads) {
+    this.planetRepository = planetRepository;
+    this.planetCache = planetCache;
+    this.nameFilter = nameFilter;
+    this.eventPublisher = eventPublisher;
+    this.validator = validator;
+    this.chunkSize = chunkSize;
+    this.queueCapacity = queueCapacity;
+    this.writers = virtualThreads
+        ? VirtualThreads.newThreadPerTaskExecutor("planet-import-")
+        : Executors.newCachedThreadPool(new CustomizableThreadFactory("planet-import-"));
+  }
+
+  public PlanetImportSummary importAll(Iterator<Planet> rows) throws InterruptedException {
+    long start = System.nanoTime();
+    BlockingQueue<List<Planet>> chunks = new ArrayBlockingQueue<>(queueCapacity);
+    AtomicLong inserted = new AtomicLong();
+    AtomicLong skippedByWriter = new AtomicLong();
+    long read = 0;
+    long invalid = 0;
+
+    Future<?> writer = writers.submit(() -> {
+      drain(chunks, inserted, skippedByWriter);
+      return null;
+    });
+    try {
+      List<Planet> chunk = new ArrayList<>(chunkSize);
+      while (rows.hasNext()) {
+        Planet planet = rows.next();
+        read++;
+        if (!validator.validate(planet).isEmpty()) {
+          invalid++;
+          continue;
+        }
+        chunk.add(planet);
+        if (chunk.size() == chunkSize) {
+          handOff(chunks, chunk, writer);
+          chunk = new ArrayList<>(chunkSize);
+        }
+      }
+      if (!chunk.isEmpty()) {
+        handOff(chunks, chunk, writer);
+      }
+      handOff(chunks, END_OF_INPUT, writer);
+      awaitWriter(writer);
+    } finally {
+      writer.cancel(true);
+    }
+
+    long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+    return new PlanetImportSummary(read, inserted.get(), invalid + skippedByWriter.get(), elapsedMillis);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    writers.shutdownNow();
+  }
+
+  private void drain(BlockingQueue<List<Planet>> chunks, AtomicLong inserted, AtomicLong skipped)
+      throws InterruptedException {
+    for (List<Planet> chunk = chunks.take(); chunk != END_OF_INPUT; chunk = chunks.take()) {
+      List<Planet> fresh = withoutExistingNames(chunk);
+      skipped.addAndGet(chunk.size() - fresh.size());
+      inserted.addAndGet(insert(fresh, skipped));
+    }
+  }
+
+  private List<Planet> withoutExistingNames(List<Planet> chunk) {
+    Set<String> possiblyTaken = new HashSet<>();
+    for (Planet planet : chunk) {
+      if (nameFilter.mightContain(planet.getName())) {
+        possiblyTaken.add(planet.getName());
+      }
+    }
+    Set<String> taken = possiblyTaken.isEmpty()
+        ? new HashSet<>()
+        : new HashSet<>(planetRepository.findNamesIn(possiblyTaken));
+    nameFilter.recordFalsePositives(possiblyTaken, taken);
+
+    List<Planet> fresh = new ArrayList<>(chunk.size());
+    for (Planet planet : chunk) {
+      if (taken.add(planet.getName())) {
+        planet.setId(null);
+        fresh.add(planet);
+      }
+    }
+    return fresh;
+  }
+
+  /**
+   * Inserts the chunk in one transaction. If a concurrent writer took one of the names in the
+   * meantime the chunk is rolled back and retried row by row, skipping the conflicting rows.
+   */
+  private long insert(List<Planet> planets, AtomicLong skipped) {
+    try {
+      planetRepository.insertAll(planets).forEach(this::created);
+      return planets.size();
+    } catch (DataIntegrityViolationException ex) {
+      long inserted = 0;
+      for (Planet planet : planets) {
+        planet.setId(null);
+        try {
+          planetRepository.insertAll(List.of(planet)).forEach(this::created);
+          inserted++;
+        } catch (DataIntegrityViolationException conflict) {
+          skipped.incrementAndGet();
+        }
+      }
+      return inserted;
+    }
+  }
+
+  private void created(Planet planet) {
+    planetCache.evictMisses(planet);
+    eventPublisher.publishEvent(new PlanetCreatedEvent(planet));
+  }
+
+  private static void handOff(BlockingQueue<List<Planet>> chunks, List<Planet> chunk, Future<?> writer)
+      throws InterruptedException {
+    while (!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+      if (writer.isDone()) {
+        awaitWriter(writer);
+        throw new IllegalStateException("Planet import writer stopped before the end of input");
+      }
+    }
+  }
+
+  private static void awaitWriter(Future<?> writer) throws InterruptedException {
+    try {
+      writer.get();
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new IllegalStateException("Planet import failed", ex.getCause());
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.swplanetapi.domain;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record PlanetLookup<T>(List<T> planets, List<Long> missing) {
+
+  public <R> PlanetLookup<R> map(Function<T, R> mapper) {
+    return new PlanetLookup<>(planets.stream().map(mapper).toList(), missing);
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.swplanetapi.domain;
+
+import java.util.Set;
+
+public class PlanetNameConflictException extends RuntimeException {
+
+  private final Set<String> names;
+
+  public PlanetNameConflictException(Set<String> names) {
+    super("Planet names already in use: " + names);
+    this.names = names;
+  }
+
+  public Set<String> getNames() {
+    return names;
+  }
+}
@@ -0,0 +1,188 @@
+package com.example.swplanetapi.domain;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Counting Bloom filter over lower-cased planet names.
+ *
+ * <p>A negative answer means the name was not in the table as this instance knows it (names compare
+ * case-insensitively in MySQL, hence the folding), which lets name conflict checks skip the
+ * database. The filter only follows writes made through this instance, so a name written by another
+ * instance or straight to the table is missed until the next rebuild; name lookups therefore only
+ * answer from a negative when {@code planets.name-filter.trust-negatives} declares this instance the
+ * single writer. Each slot is a saturating 4-bit counter so removals can be applied; a slot
+ * that ever reached the maximum stays there. The filter is sized at twice the table on every
+ * rebuild, which also clears saturated slots, and is rebuilt periodically to follow the growth.
+ *
+ * <p>Lookups the filter lets through but the database then misses are counted as false positives,
+ * giving the measured false positive rate published as {@code planets.name.filter.false.positive.rate}.
+ * Batch probes, which check the names let through with one query, report their misses through
+ * {@link #recordFalsePositives(Collection, Collection)} so their rejections do not bias the rate.
+ */
+@Component
+public class PlanetNameFilter extends InMemoryPlanetIndex<PlanetNameFilter.Counters> {
+  private static final double FALSE_POSITIVE_TARGET = 0.01;
+  private static final long MIN_CAPACITY = 10_000;
+
+  private final LongAdder rejections = new LongAdder();
+  private final LongAdder falsePositives = new LongAdder();
+  private final boolean trustNegatives;
+
+  public PlanetNameFilter(PlanetRepository planetRepository, PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry, @Value("${planets.name-filter.trust-negatives:false}") boolean trustNegatives) {
+    super(planetRepository, transactionManager);
+    this.trustNegatives = trustNegatives;
+    FunctionCounter.builder("planets.name.filter.rejections", rejections, LongAdder::doubleValue)
+        .description("Name lookups answered as absent without querying the database")
+        .register(meterRegistry);
+    FunctionCounter.builder("planets.name.filter.false.positives", falsePositives, LongAdder::doubleValue)
+        .description("Name lookups let through by the filter that found no planet")
+        .register(meterRegistry);
+    Gauge.builder("planets.name.filter.false.positive.rate", this, PlanetNameFilter::falsePositiveRate)
+        .description("Share of lookups for absent names that the filter let through")
+        .register(meterRegistry);
+  }
+
+  @Override
+  protected Counters newContents(long expectedSize) {
+    return new Counters(Math.max(MIN_CAPACITY, expectedSize * 2), FALSE_POSITIVE_TARGET);
+  }
+
+  @Override
+  @Scheduled(initialDelayString = "${planets.name-filter.rebuild-interval:PT1H}",
+      fixedDelayString = "${planets.name-filter.rebuild-interval:PT1H}")
+  public void rebuild() {
+    super.rebuild();
+  }
+
+  /** Returns false only if no planet written through this instance has this name, ignoring case. */
+  public boolean mightContain(String name) {
+    boolean present = read(counters -> counters.mightContain(fold(name)));
+    if (!present) {
+      rejections.increment();
+    }
+    return present;
+  }
+
+  /** Whether a negative answer can stand in for the database, which holds only if this instance makes every write. */
+  public boolean trustsNegatives() {
+    return trustNegatives;
+  }
+
+  public void recordFalsePositive() {
+    falsePositives.increment();
+  }
+
+  /** Counts the names let through that the database did not find, comparing them ignoring case. */
+  public void recordFalsePositives(Collection<String> letThrough, Collection<String> found) {
+    Set<String> foundFolded = found.stream().map(PlanetNameFilter::fold).collect(Collectors.toSet());
+    falsePositives.add(letThrough.stream().filter(name -> !foundFolded.contains(fold(name))).count());
+  }
+
+  double falsePositiveRate() {
+    double negatives = rejections.sum() + falsePositives.sum();
+    return negatives == 0 ? 0 : falsePositives.sum() / negatives;
+  }
+
+  private static String fold(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  static final class Counters implements InMemoryPlanetIndex.Contents {
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long MAX_COUNT = 0xF;
+
+    private final long[] words;
+    private final long slots;
+    private final int hashes;
+
+    Counters(long capacity, double falsePositiveRate) {
+      long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+      this.words = new long[Math.toIntExact((bits + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD)];
+      this.slots = (long) words.length * COUNTERS_PER_WORD;
+      this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+    }
+
+    @Override
+    public void add(Planet planet) {
+      long hash = hash(fold(planet.getName()));
+      for (int i = 0; i < hashes; i++) {
+        long slot = slot(hash, i);
+        long count = count(slot);
+        if (count < MAX_COUNT) {
+          set(slot, count + 1);
+        }
+      }
+    }
+
+    @Override
+    public void remove(Planet planet) {
+      long hash = hash(fold(planet.getName()));
+      for (int i = 0; i < hashes; i++) {
+        if (count(slot(hash, i)) == 0) {
+          return;
+        }
+      }
+      for (int i = 0; i < hashes; i++) {
+        long slot = slot(hash, i);
+        long count = count(slot);
+        if (count < MAX_COUNT) {
+          set(slot, count - 1);
+        }
+      }
+    }
+
+    boolean mightContain(String foldedName) {
+      long hash = hash(foldedName);
+      for (int i = 0; i < hashes; i++) {
+        if (count(slot(hash, i)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private long slot(long hash, int i) {
+      long combined = (hash >>> 32) + i * (hash | 1);
+      return Math.floorMod(combined, slots);
+    }
+
+    private long count(long slot) {
+      int shift = (int) (slot % COUNTERS_PER_WORD) * 4;
+      return (words[(int) (slot / COUNTERS_PER_WORD)] >>> shift) & MAX_COUNT;
+    }
+
+    private void set(long slot, long count) {
+      int word = (int) (slot / COUNTERS_PER_WORD);
+      int shift = (int) (slot % COUNTERS_PER_WORD) * 4;
+      words[word] = (words[word] & ~(MAX_COUNT << shift)) | (count << shift);
+    }
+
+    /** 64-bit FNV-1a over the UTF-16 chars, finished with a Murmur3 mix. */
+    private static long hash(String value) {
+      long hash = 0xcbf29ce484222325L;
+      for (int i = 0; i < value.length(); i++) {
+        hash ^= value.charAt(i);
+        hash *= 0x100000001b3L;
+      }
+      hash ^= hash >>> 33;
+      hash *= 0xff51afd7ed558ccdL;
+      hash ^= hash >>> 33;
+      hash *= 0xc4ceb93fe1a85ec3L;
+      hash ^= hash >>> 33;
+      return hash;
+    }
+  }
+}
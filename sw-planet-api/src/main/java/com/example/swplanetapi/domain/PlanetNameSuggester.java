@@ -0,0 +1,147 @@
+package com.example.swplanetapi.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Case-insensitive prefix completion over planet names.
+ *
+ * <p>Names live in one array sorted case-insensitively, so the names sharing a prefix form a
+ * contiguous run found by binary search and no per-character nodes are allocated. Names created
+ * since the last merge sit in a small sorted delta, and removed names in a tombstone set; both are
+ * folded into the array once the delta outgrows a fraction of it.
+ */
+@Component
+public class PlanetNameSuggester extends InMemoryPlanetIndex<PlanetNameSuggester.Names> {
+  private static final Comparator<String> NAME_ORDER =
+      String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+  public PlanetNameSuggester(PlanetRepository planetRepository, PlatformTransactionManager transactionManager) {
+    super(planetRepository, transactionManager);
+  }
+
+  @Override
+  protected Names newContents(long expectedSize) {
+    return new Names();
+  }
+
+  public List<String> suggest(String prefix, int limit) {
+    return read(names -> names.suggest(prefix, limit));
+  }
+
+  static final class Names implements InMemoryPlanetIndex.Contents {
+    private static final int MIN_MERGE_THRESHOLD = 1024;
+
+    private String[] sorted = new String[0];
+    private final List<String> added = new ArrayList<>();
+    private final Set<String> removed = new HashSet<>();
+    private boolean loading = true;
+
+    @Override
+    public void add(Planet planet) {
+      String name = planet.getName();
+      if (loading) {
+        added.add(name);
+        return;
+      }
+      if (removed.remove(name) || Arrays.binarySearch(sorted, name, NAME_ORDER) >= 0) {
+        return;
+      }
+      int position = Collections.binarySearch(added, name, NAME_ORDER);
+      if (position < 0) {
+        added.add(-position - 1, name);
+      }
+      if (added.size() > Math.max(MIN_MERGE_THRESHOLD, sorted.length / 16)) {
+        merge();
+      }
+    }
+
+    @Override
+    public void remove(Planet planet) {
+      String name = planet.getName();
+      int position = Collections.binarySearch(added, name, NAME_ORDER);
+      if (position >= 0) {
+        added.remove(position);
+      } else if (Arrays.binarySearch(sorted, name, NAME_ORDER) >= 0) {
+        removed.add(name);
+      }
+    }
+
+    @Override
+    public void loaded() {
+      added.sort(NAME_ORDER);
+      loading = false;
+      merge();
+    }
+
+    List<String> suggest(String prefix, int limit) {
+      List<String> matches = new ArrayList<>(Math.min(limit, 16));
+      int i = lowerBound(Arrays.asList(sorted), prefix);
+      int j = lowerBound(added, prefix);
+      while (matches.size() < limit) {
+        String fromSorted = i < sorted.length && startsWith(sorted[i], prefix) ? sorted[i] : null;
+        String fromAdded = j < added.size() && startsWith(added.get(j), prefix) ? added.get(j) : null;
+        if (fromSorted == null && fromAdded == null) {
+          break;
+        }
+        if (fromAdded == null || (fromSorted != null && NAME_ORDER.compare(fromSorted, fromAdded) < 0)) {
+          i++;
+          if (!removed.contains(fromSorted)) {
+            matches.add(fromSorted);
+          }
+        } else {
+          j++;
+          matches.add(fromAdded);
+        }
+      }
+      return matches;
+    }
+
+    private void merge() {
+      String[] merged = new String[sorted.length - removed.size() + added.size()];
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < sorted.length || j < added.size()) {
+        if (j == added.size() || (i < sorted.length && NAME_ORDER.compare(sorted[i], added.get(j)) < 0)) {
+          if (!removed.contains(sorted[i])) {
+            merged[k++] = sorted[i];
+          }
+          i++;
+        } else {
+          merged[k++] = added.get(j++);
+        }
+      }
+      sorted = k == merged.length ? merged : Arrays.copyOf(merged, k);
+      added.clear();
+      removed.clear();
+    }
+
+    /** First position whose name is not below the prefix, ignoring case. */
+    private static int lowerBound(List<String> names, String prefix) {
+      int low = 0;
+      int high = names.size();
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (String.CASE_INSENSITIVE_ORDER.compare(names.get(mid), prefix) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    private static boolean startsWith(String name, String prefix) {
+      return name.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.swplanetapi.domain;
+
+public class PlanetNotFoundException extends RuntimeException {
+
+  public PlanetNotFoundException(Long id) {
+    super("Planet " + id + " not found");
+  }
+
+  public PlanetNotFoundException(String name) {
+    super("Planet named " + name + " not found");
+  }
+}
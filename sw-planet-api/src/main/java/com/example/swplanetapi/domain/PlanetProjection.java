@@ -0,0 +1,17 @@
+package com.example.swplanetapi.domain;
+
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** Read-only subset of a planet; attributes that were not selected are null and left out of the JSON. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PlanetProjection(Long id, String name, String climate, String terrain) {
+
+  public static PlanetProjection of(Planet planet, Set<PlanetField> fields) {
+    return new PlanetProjection(planet.getId(),
+        fields.contains(PlanetField.NAME) ? planet.getName() : null,
+        fields.contains(PlanetField.CLIMATE) ? planet.getClimate() : null,
+        fields.contains(PlanetField.TERRAIN) ? planet.getTerrain() : null);
+  }
+}
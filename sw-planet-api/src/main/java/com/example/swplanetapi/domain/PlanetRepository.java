@@ -1,18 +1,44 @@
 package com.example.swplanetapi.domain;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Example;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface PlanetRepository extends CrudRepository<Planet, Long>, QueryByExampleExecutor<Planet> {
+public interface PlanetRepository extends CrudRepository<Planet, Long>, QueryByExampleExecutor<Planet>,
+        PlanetRepositoryCustom {
 
   Optional<Planet> findByName(String name);
 
+  @Query("SELECT p.version FROM Planet p WHERE p.id = :id")
+  Optional<Long> findVersionById(@Param("id") Long id);
+
+  // Single-statement deletes reporting how many rows went, unlike deleteById's SELECT then DELETE.
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM Planet p WHERE p.id = :id")
+  int deleteReturningCount(@Param("id") Long id);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM Planet p WHERE p.id IN :ids")
+  int deleteAllReturningCount(@Param("ids") Collection<Long> ids);
+
+  @Query("SELECT p.name FROM Planet p WHERE p.name IN :names")
+  List<String> findNamesIn(@Param("names") Collection<String> names);
+
+  @Query("SELECT p.climateKey AS climate, p.terrainKey AS terrain, COUNT(p) AS count " +
+          "FROM Planet p " +
+          "GROUP BY p.climateKey, p.terrainKey")
+  List<ClimateTerrainCount> countByClimateAndTerrain();
+
   @Override
   <S extends Planet> List<S> findAll(Example<S> example);
 
@@ -24,5 +50,11 @@ public interface PlanetRepository extends CrudRepository<Planet, Long>, QueryByE
 
   List<Planet> findByClimateContainingIgnoreCaseAndTerrainContainingIgnoreCase(String climate, String terrain);
 
+  interface ClimateTerrainCount {
+    String getClimate();
+
+    String getTerrain();
 
+    long getCount();
+  }
 }
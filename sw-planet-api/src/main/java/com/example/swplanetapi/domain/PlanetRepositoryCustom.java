@@ -0,0 +1,28 @@
+package com.example.swplanetapi.domain;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Example;
+
+public interface PlanetRepositoryCustom {
+
+  List<Planet> findAllAfter(Example<Planet> example, Long afterId, int limit);
+
+  List<PlanetProjection> findProjectedAfter(Example<Planet> example, Set<PlanetField> fields, Long afterId,
+      Integer limit);
+
+  Stream<Planet> streamAll(Example<Planet> example);
+
+  List<Planet> insertAll(List<Planet> planets);
+
+  int deleteAllMatching(Example<Planet> example);
+
+  PlanetUpsert upsertByName(Planet planet);
+
+  Optional<Planet> updateById(Long id, Planet changes);
+
+  int updateIfVersion(Long id, long version, Planet changes);
+}
@@ -0,0 +1,266 @@
+package com.example.swplanetapi.domain;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Example;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+public class PlanetRepositoryImpl implements PlanetRepositoryCustom {
+  private static final int STREAM_FETCH_SIZE = 500;
+
+  // The affected-row count tells an insert (1) from an update (2); on an update LAST_INSERT_ID
+  // carries the existing id back as the generated key, in the same response.
+  private static final String MYSQL_UPSERT =
+      "INSERT INTO planets (id, name, climate, terrain, version) VALUES (?, ?, ?, ?, 0) "
+          + "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id), version = version + 1, "
+          + "climate = VALUES(climate), terrain = VALUES(terrain)";
+
+  // The final table is the row as the merge left it; it keeps the new id only if it was inserted.
+  private static final String MERGE_UPSERT =
+      "SELECT id FROM FINAL TABLE (MERGE INTO planets t USING (VALUES (CAST(? AS BIGINT), "
+          + "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)))) "
+          + "s (id, name, climate, terrain) ON t.name = s.name "
+          + "WHEN MATCHED THEN UPDATE SET climate = s.climate, terrain = s.terrain, version = t.version + 1 "
+          + "WHEN NOT MATCHED THEN INSERT (id, name, climate, terrain, version) "
+          + "VALUES (s.id, s.name, s.climate, s.terrain, 0))";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+  private int batchSize;
+
+  /**
+   * Keyset page: {@code WHERE <example> AND id > :afterId ORDER BY id LIMIT :limit}, so every page
+   * is a range read on the primary key no matter how deep it is.
+   */
+  @Override
+  public List<Planet> findAllAfter(Example<Planet> example, Long afterId, int limit) {
+    return entityManager.createQuery(selectByExample(example, afterId)).setMaxResults(limit).getResultList();
+  }
+
+  /**
+   * Forward-only cursor over the matching rows, read {@value #STREAM_FETCH_SIZE} at a time. Each
+   * planet is detached as it is handed out so the persistence context does not grow with the
+   * result; callers must consume it inside a transaction and close it.
+   */
+  @Override
+  public Stream<Planet> streamAll(Example<Planet> example) {
+    return entityManager.createQuery(selectByExample(example, null))
+        .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+        .setHint(QueryHints.HINT_READONLY, true)
+        .getResultStream()
+        .peek(entityManager::detach);
+  }
+
+  /**
+   * Persists all planets in one transaction, flushing and clearing every JDBC batch so the inserts
+   * go out as batched statements and the persistence context stays small.
+   */
+  @Override
+  @Transactional
+  public List<Planet> insertAll(List<Planet> planets) {
+    for (int i = 0; i < planets.size(); i++) {
+      entityManager.persist(planets.get(i));
+      if ((i + 1) % batchSize == 0) {
+        entityManager.flush();
+        entityManager.clear();
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+    return planets;
+  }
+
+  /**
+   * Same keyset read as {@link #findAllAfter} but selecting only the requested columns into
+   * projections, so no entity is instantiated, snapshotted or registered in the persistence context.
+   * A null limit reads every matching row.
+   */
+  @Override
+  public List<PlanetProjection> findProjectedAfter(Example<Planet> example, Set<PlanetField> fields, Long afterId,
+      Integer limit) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = builder.createTupleQuery();
+    Root<Planet> root = query.from(Planet.class);
+
+    List<Selection<?>> selections = new ArrayList<>();
+    selections.add(root.get("id").alias("id"));
+    for (PlanetField field : fields) {
+      if (field != PlanetField.ID) {
+        selections.add(root.get(field.attribute()).alias(field.attribute()));
+      }
+    }
+    query.multiselect(selections)
+        .where(matching(builder, root, example, afterId))
+        .orderBy(builder.asc(root.get("id")));
+
+    TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+    if (limit != null) {
+      typedQuery.setMaxResults(limit);
+    }
+    List<Tuple> rows = typedQuery.getResultList();
+    List<PlanetProjection> projections = new ArrayList<>(rows.size());
+    for (Tuple row : rows) {
+      projections.add(new PlanetProjection(row.get("id", Long.class),
+          selected(row, fields, PlanetField.NAME),
+          selected(row, fields, PlanetField.CLIMATE),
+          selected(row, fields, PlanetField.TERRAIN)));
+    }
+    return projections;
+  }
+
+  /** One {@code DELETE ... WHERE <example>}, using the same predicates as the list queries. */
+  @Override
+  @Transactional
+  public int deleteAllMatching(Example<Planet> example) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaDelete<Planet> delete = builder.createCriteriaDelete(Planet.class);
+    Root<Planet> root = delete.from(Planet.class);
+    return entityManager.createQuery(delete.where(matching(builder, root, example, null))).executeUpdate();
+  }
+
+  /**
+   * Inserts the planet or, when its name is taken, overwrites that row's climate and terrain and
+   * bumps its version, in a single statement: {@code INSERT ... ON DUPLICATE KEY UPDATE} on MySQL
+   * and a {@code MERGE} read back through {@code FINAL TABLE} on H2. The statement goes through
+   * Hibernate's JDBC coordinator, so it is logged and timed like any other. A new row takes its id
+   * from the pooled sequence, which only reaches the database once per allocation; the id is
+   * skipped when the name already exists.
+   */
+  @Override
+  @Transactional
+  public PlanetUpsert upsertByName(Planet planet) {
+    SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+    Long newId = (Long) session.getEntityPersister(null, planet).getIdentifierGenerator().generate(session, planet);
+    boolean mySql = session.getJdbcServices().getDialect() instanceof MySQLDialect;
+    String sql = mySql ? MYSQL_UPSERT : MERGE_UPSERT;
+
+    JdbcCoordinator jdbc = session.getJdbcCoordinator();
+    PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    try {
+      statement.setLong(1, newId);
+      statement.setString(2, planet.getName());
+      statement.setString(3, planet.getClimate());
+      statement.setString(4, planet.getTerrain());
+      Long id;
+      if (mySql) {
+        if (jdbc.getResultSetReturn().executeUpdate(statement) == 1) {
+          id = newId;
+        } else {
+          try (ResultSet keys = statement.getGeneratedKeys()) {
+            keys.next();
+            id = keys.getLong(1);
+          }
+        }
+      } else {
+        try (ResultSet row = jdbc.getResultSetReturn().extract(statement)) {
+          row.next();
+          id = row.getLong(1);
+        }
+      }
+      return new PlanetUpsert(new Planet(id, planet.getName(), planet.getClimate(), planet.getTerrain()),
+          id.equals(newId));
+    } catch (SQLException ex) {
+      throw session.getJdbcServices().getSqlExceptionHelper().convert(ex, "could not upsert planet", sql);
+    } finally {
+      jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+      jdbc.afterStatementExecution();
+    }
+  }
+
+  /**
+   * Loads the planet, applies the non-null fields of {@code changes} and flushes. Only the changed
+   * columns are written, guarded by the version that was read; a concurrent update in between
+   * fails with an optimistic locking exception. The planet comes back detached at its new version.
+   */
+  @Override
+  @Transactional
+  public Optional<Planet> updateById(Long id, Planet changes) {
+    Planet planet = entityManager.find(Planet.class, id);
+    if (planet == null) {
+      return Optional.empty();
+    }
+    planet.apply(changes);
+    entityManager.flush();
+    entityManager.detach(planet);
+    return Optional.of(planet);
+  }
+
+  /**
+   * {@code UPDATE planets SET <non-null fields>, version = version + 1 WHERE id = ? AND version = ?},
+   * without reading the row. Returns 0 when the planet is missing or at another version.
+   */
+  @Override
+  @Transactional
+  public int updateIfVersion(Long id, long version, Planet changes) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaUpdate<Planet> update = builder.createCriteriaUpdate(Planet.class);
+    Root<Planet> root = update.from(Planet.class);
+    if (changes.getName() != null) {
+      update.set(root.<String>get("name"), changes.getName());
+    }
+    if (changes.getClimate() != null) {
+      update.set(root.<String>get("climate"), changes.getClimate());
+    }
+    if (changes.getTerrain() != null) {
+      update.set(root.<String>get("terrain"), changes.getTerrain());
+    }
+    update.set(root.<Long>get("version"), builder.sum(root.<Long>get("version"), 1L))
+        .where(builder.equal(root.get("id"), id), builder.equal(root.get("version"), version));
+    return entityManager.createQuery(update).executeUpdate();
+  }
+
+  private CriteriaQuery<Planet> selectByExample(Example<Planet> example, Long afterId) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Planet> query = builder.createQuery(Planet.class);
+    Root<Planet> root = query.from(Planet.class);
+
+    return query.select(root)
+        .where(matching(builder, root, example, afterId))
+        .orderBy(builder.asc(root.get("id")));
+  }
+
+  private static Predicate[] matching(CriteriaBuilder builder, Root<Planet> root, Example<Planet> example,
+      Long afterId) {
+    List<Predicate> predicates = new ArrayList<>();
+    Predicate matchesExample = QueryByExamplePredicateBuilder.getPredicate(root, builder, example);
+    if (matchesExample != null) {
+      predicates.add(matchesExample);
+    }
+    if (afterId != null) {
+      predicates.add(builder.greaterThan(root.get("id"), afterId));
+    }
+    return predicates.toArray(new Predicate[0]);
+  }
+
+  private static String selected(Tuple row, Set<PlanetField> fields, PlanetField field) {
+    return fields.contains(field) ? row.get(field.attribute(), String.class) : null;
+  }
+}
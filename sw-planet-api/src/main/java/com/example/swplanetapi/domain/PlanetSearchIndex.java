@@ -0,0 +1,266 @@
+package com.example.swplanetapi.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * In-memory trigram index over planet names, climates and terrains for substring search.
+ *
+ * <p>Every planet gets an ordinal; each field keeps a posting list of ascending ordinals per
+ * lower-cased trigram. A query walks the shortest posting list of its trigrams, galloping through
+ * the others, and verifies the surviving candidates against the stored values until the limit is
+ * reached; terms shorter than three characters only take part in the verification. Removed planets
+ * are only tombstoned, so updates, which remove and add again, leave dead ordinals behind; when the
+ * arrays are full and at least half of the ordinals are dead, the index is compacted in place
+ * instead of growing.
+ */
+@Component
+public class PlanetSearchIndex extends InMemoryPlanetIndex<PlanetSearchIndex.Index> {
+
+  public PlanetSearchIndex(PlanetRepository planetRepository, PlatformTransactionManager transactionManager) {
+    super(planetRepository, transactionManager);
+  }
+
+  @Override
+  protected Index newContents(long expectedSize) {
+    return new Index();
+  }
+
+  public List<Planet> search(String name, String climate, String terrain, int limit) {
+    return read(index -> index.search(lower(name), lower(climate), lower(terrain), limit));
+  }
+
+  /** Planets whose climate and terrain equal the given ones, ignoring case; null matches anything. */
+  public List<Planet> matching(String climate, String terrain) {
+    return search(null, climate, terrain, Integer.MAX_VALUE).stream()
+        .filter(planet -> climate == null || planet.getClimate().equalsIgnoreCase(climate))
+        .filter(planet -> terrain == null || planet.getTerrain().equalsIgnoreCase(terrain))
+        .toList();
+  }
+
+  public Optional<Planet> get(Long id) {
+    return read(index -> Optional.ofNullable(index.get(id)));
+  }
+
+  public int size() {
+    return read(index -> index.live.cardinality());
+  }
+
+  /** Ordinals handed out, live or dead, since the last compaction. */
+  int ordinals() {
+    return read(index -> index.size);
+  }
+
+  private static String lower(String term) {
+    return term == null || term.isEmpty() ? null : term.toLowerCase(Locale.ROOT);
+  }
+
+  static final class Index implements InMemoryPlanetIndex.Contents {
+    private long[] ids = new long[1024];
+    private String[] names = new String[1024];
+    private String[] climates = new String[1024];
+    private String[] terrains = new String[1024];
+    private int size;
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    private final Map<Long, Postings> nameTrigrams = new HashMap<>();
+    private final Map<Long, Postings> climateTrigrams = new HashMap<>();
+    private final Map<Long, Postings> terrainTrigrams = new HashMap<>();
+
+    @Override
+    public void add(Planet planet) {
+      remove(planet);
+      if (size == ids.length) {
+        if (live.cardinality() <= size / 2) {
+          compact();
+        } else {
+          int capacity = size * 2;
+          ids = Arrays.copyOf(ids, capacity);
+          names = Arrays.copyOf(names, capacity);
+          climates = Arrays.copyOf(climates, capacity);
+          terrains = Arrays.copyOf(terrains, capacity);
+        }
+      }
+      append(planet.getId(), planet.getName(), planet.getClimate(), planet.getTerrain());
+    }
+
+    private void append(long id, String name, String climate, String terrain) {
+      int ordinal = size++;
+      ids[ordinal] = id;
+      names[ordinal] = name;
+      climates[ordinal] = climate;
+      terrains[ordinal] = terrain;
+      live.set(ordinal);
+      ordinalsById.put(id, ordinal);
+      indexTrigrams(nameTrigrams, name, ordinal);
+      indexTrigrams(climateTrigrams, climate, ordinal);
+      indexTrigrams(terrainTrigrams, terrain, ordinal);
+    }
+
+    /** Renumbers the live planets from zero, keeping their order, and reindexes them into the same arrays. */
+    private void compact() {
+      int previousSize = size;
+      size = 0;
+      live.clear();
+      ordinalsById.clear();
+      nameTrigrams.clear();
+      climateTrigrams.clear();
+      terrainTrigrams.clear();
+      for (int ordinal = 0; ordinal < previousSize; ordinal++) {
+        String name = names[ordinal];
+        if (name != null) {
+          String climate = climates[ordinal];
+          String terrain = terrains[ordinal];
+          names[ordinal] = null;
+          climates[ordinal] = null;
+          terrains[ordinal] = null;
+          append(ids[ordinal], name, climate, terrain);
+        }
+      }
+    }
+
+    @Override
+    public void remove(Planet planet) {
+      Integer ordinal = ordinalsById.remove(planet.getId());
+      if (ordinal != null) {
+        live.clear(ordinal);
+        names[ordinal] = null;
+        climates[ordinal] = null;
+        terrains[ordinal] = null;
+      }
+    }
+
+    Planet get(Long id) {
+      Integer ordinal = ordinalsById.get(id);
+      return ordinal == null ? null : new Planet(id, names[ordinal], climates[ordinal], terrains[ordinal]);
+    }
+
+    List<Planet> search(String name, String climate, String terrain, int limit) {
+      List<Postings> lists = new ArrayList<>();
+      if (!collect(lists, nameTrigrams, name) || !collect(lists, climateTrigrams, climate)
+          || !collect(lists, terrainTrigrams, terrain)) {
+        return List.of();
+      }
+      lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+      List<Planet> matches = new ArrayList<>(Math.min(limit, 64));
+      Postings driver = lists.isEmpty() ? null : lists.get(0);
+      int[] cursors = new int[lists.size()];
+      int count = driver == null ? size : driver.size;
+      for (int i = 0; i < count && matches.size() < limit; i++) {
+        int ordinal = driver == null ? i : driver.ordinals[i];
+        if (live.get(ordinal)
+            && containsAll(lists, cursors, ordinal)
+            && containsIgnoreCase(names[ordinal], name)
+            && containsIgnoreCase(climates[ordinal], climate)
+            && containsIgnoreCase(terrains[ordinal], terrain)) {
+          matches.add(new Planet(ids[ordinal], names[ordinal], climates[ordinal], terrains[ordinal]));
+        }
+      }
+      return matches;
+    }
+
+    private static void indexTrigrams(Map<Long, Postings> trigrams, String value, int ordinal) {
+      String lower = value.toLowerCase(Locale.ROOT);
+      for (int i = 0; i + 3 <= lower.length(); i++) {
+        Postings postings = trigrams.computeIfAbsent(trigram(lower, i), key -> new Postings());
+        if (postings.size == 0 || postings.ordinals[postings.size - 1] != ordinal) {
+          postings.append(ordinal);
+        }
+      }
+    }
+
+    /** Adds the posting lists of the term's trigrams, returning false if one of them is empty. */
+    private static boolean collect(List<Postings> lists, Map<Long, Postings> trigrams, String term) {
+      if (term == null) {
+        return true;
+      }
+      for (int i = 0; i + 3 <= term.length(); i++) {
+        Postings postings = trigrams.get(trigram(term, i));
+        if (postings == null) {
+          return false;
+        }
+        if (!lists.contains(postings)) {
+          lists.add(postings);
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Checks the ordinal against every list but the driving one. Ordinals are probed in ascending
+     * order, so each list keeps a cursor that only moves forward.
+     */
+    private static boolean containsAll(List<Postings> lists, int[] cursors, int ordinal) {
+      for (int l = 1; l < lists.size(); l++) {
+        Postings postings = lists.get(l);
+        cursors[l] = postings.advance(cursors[l], ordinal);
+        if (cursors[l] == postings.size || postings.ordinals[cursors[l]] != ordinal) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static long trigram(String value, int offset) {
+      return ((long) value.charAt(offset) << 32) | ((long) value.charAt(offset + 1) << 16) | value.charAt(offset + 2);
+    }
+
+    private static boolean containsIgnoreCase(String value, String term) {
+      if (term == null) {
+        return true;
+      }
+      for (int i = 0; i + term.length() <= value.length(); i++) {
+        if (value.regionMatches(true, i, term, 0, term.length())) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /** Ascending ordinals in a growable primitive array. */
+  private static final class Postings {
+    private int[] ordinals = new int[4];
+    private int size;
+
+    void append(int ordinal) {
+      if (size == ordinals.length) {
+        ordinals = Arrays.copyOf(ordinals, size * 2);
+      }
+      ordinals[size++] = ordinal;
+    }
+
+    /** Returns the first position at or after {@code from} holding an ordinal not below the target. */
+    int advance(int from, int target) {
+      int step = 1;
+      int low = from;
+      int high = from;
+      while (high < size && ordinals[high] < target) {
+        low = high + 1;
+        high = from + step;
+        step <<= 1;
+      }
+      high = Math.min(high, size);
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (ordinals[mid] < target) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -1,39 +1,401 @@
 package com.example.swplanetapi.domain;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class PlanetService {
-
+  private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
 
   private final PlanetRepository planetRepository;
+  private final PlanetCache planetCache;
+  private final PlanetSearchIndex searchIndex;
+  private final PlanetNameSuggester nameSuggester;
+  private final PlanetNameFilter nameFilter;
+  private final ApplicationEventPublisher eventPublisher;
+  private final PlanetChangeCounter changeCounter;
+  private final PlanetCounts counts;
+  private final SingleFlight<Long, Optional<Planet>> loadsById = new SingleFlight<>();
+  private final SingleFlight<String, Optional<Planet>> loadsByName = new SingleFlight<>();
 
-  public PlanetService(PlanetRepository planetRepository) {
+  public PlanetService(PlanetRepository planetRepository, PlanetCache planetCache, PlanetSearchIndex searchIndex,
+      PlanetNameSuggester nameSuggester, PlanetNameFilter nameFilter, ApplicationEventPublisher eventPublisher,
+      PlanetChangeCounter changeCounter, PlanetCounts counts) {
     this.planetRepository = planetRepository;
+    this.planetCache = planetCache;
+    this.searchIndex = searchIndex;
+    this.nameSuggester = nameSuggester;
+    this.nameFilter = nameFilter;
+    this.eventPublisher = eventPublisher;
+    this.changeCounter = changeCounter;
+    this.counts = counts;
   }
 
   public Planet create(Planet planet) {
-    return planetRepository.save(planet);
+    if (planet.getName() != null && nameFilter.mightContain(planet.getName())
+        && getByName(planet.getName()).isPresent()) {
+      throw new DataIntegrityViolationException("Planet name already exists: " + planet.getName());
+    }
+    // The id is generated; a client-supplied one would make save() persist a detached entity.
+    planet.setId(null);
+    Planet created = planetRepository.save(planet);
+    planetCache.put(created);
+    eventPublisher.publishEvent(new PlanetCreatedEvent(created));
+    return created;
+  }
+
+  public List<Planet> createAll(List<Planet> planets) {
+    Set<String> conflicts = findNameConflicts(planets);
+    if (!conflicts.isEmpty()) {
+      throw new PlanetNameConflictException(conflicts);
+    }
+
+    planets.forEach(planet -> planet.setId(null));
+    List<Planet> created = planetRepository.insertAll(planets);
+    for (Planet planet : created) {
+      planetCache.evictMisses(planet);
+      eventPublisher.publishEvent(new PlanetCreatedEvent(planet));
+    }
+    return created;
   }
 
+  @Transactional(readOnly = true)
   public Optional<Planet> get(Long id) {
-    return planetRepository.findById(id);
+    Planet cached = planetCache.getById(id);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    if (planetCache.isMissing(id)) {
+      return Optional.empty();
+    }
+
+    return loadsById.load(id, () -> {
+      long generation = planetCache.generation();
+      Optional<Planet> planet = planetRepository.findById(id);
+      planet.ifPresentOrElse(found -> planetCache.putLoaded(found, generation), () -> planetCache.putMissing(id));
+      return planet;
+    });
+  }
+
+  /** The planet's version from the cache or a single-column read, without loading the entity. */
+  @Transactional(readOnly = true)
+  public Optional<Long> getVersion(Long id) {
+    Planet cached = planetCache.getById(id);
+    if (cached != null) {
+      return Optional.of(cached.getVersion());
+    }
+    if (planetCache.isMissing(id)) {
+      return Optional.empty();
+    }
+    return planetRepository.findVersionById(id);
+  }
+
+  /**
+   * Changes whenever a planet is created or removed. Taken before a list is read, it identifies
+   * that list until the next write.
+   */
+  public String listVersion() {
+    return changeCounter.current();
+  }
+
+  /**
+   * Resolves many ids at once: cached planets are served from memory and the rest are loaded with
+   * chunked IN queries. Planets come back in request order, without duplicates.
+   */
+  @Transactional(readOnly = true)
+  public PlanetLookup<Planet> getAll(List<Long> ids) {
+    Set<Long> distinctIds = new LinkedHashSet<>(ids);
+    Map<Long, Planet> found = new HashMap<>();
+    List<Long> uncached = new ArrayList<>();
+    for (Long id : distinctIds) {
+      Planet cached = planetCache.getById(id);
+      if (cached != null) {
+        found.put(id, cached);
+      } else if (!planetCache.isMissing(id)) {
+        uncached.add(id);
+      }
+    }
+
+    long generation = planetCache.generation();
+    for (int from = 0; from < uncached.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+      int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, uncached.size());
+      for (Planet planet : planetRepository.findAllById(uncached.subList(from, to))) {
+        planetCache.putLoaded(planet, generation);
+        found.put(planet.getId(), planet);
+      }
+    }
+    uncached.stream().filter(id -> !found.containsKey(id)).forEach(planetCache::putMissing);
+
+    List<Planet> planets = new ArrayList<>(found.size());
+    List<Long> missing = new ArrayList<>();
+    for (Long id : distinctIds) {
+      Planet planet = found.get(id);
+      if (planet != null) {
+        planets.add(planet);
+      } else {
+        missing.add(id);
+      }
+    }
+    return new PlanetLookup<>(planets, missing);
   }
 
+  @Transactional(readOnly = true)
   public Optional<Planet> getByName(String name) {
-    return planetRepository.findByName(name);
+    Planet cached = planetCache.getByName(name);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    if (planetCache.isMissing(name)) {
+      return Optional.empty();
+    }
+    boolean mightExist = nameFilter.mightContain(name);
+    if (!mightExist && nameFilter.trustsNegatives()) {
+      return Optional.empty();
+    }
+
+    return loadsByName.load(name, () -> {
+      long generation = planetCache.generation();
+      Optional<Planet> planet = planetRepository.findByName(name);
+      planet.ifPresentOrElse(found -> planetCache.putLoaded(found, generation), () -> {
+        planetCache.putMissing(name);
+        if (mightExist) {
+          nameFilter.recordFalsePositive();
+        }
+      });
+      return planet;
+    });
   }
 
+  @Transactional(readOnly = true)
   public List<Planet> list(String terrain, String climate) {
     Example<Planet> query = QueryBuilder.makeQuery(new Planet(climate, terrain));
     return planetRepository.findAll(query);
   }
 
-  public void remove(Long id) {
-    planetRepository.deleteById(id);
+  @Transactional(readOnly = true)
+  public Slice<Planet> list(String terrain, String climate, Long afterId, int limit) {
+    Example<Planet> query = QueryBuilder.makeQuery(new Planet(climate, terrain));
+    List<Planet> planets = planetRepository.findAllAfter(query, afterId, limit + 1);
+    boolean hasNext = planets.size() > limit;
+    return new SliceImpl<>(hasNext ? planets.subList(0, limit) : planets, Pageable.ofSize(limit), hasNext);
+  }
+
+  /** Counted in memory; see {@link PlanetCounts}. */
+  public PlanetStats stats() {
+    return counts.stats();
+  }
+
+  /** How many planets {@link #list(String, String)} would return, counted in memory. */
+  public long count(String terrain, String climate) {
+    return counts.count(climate, terrain);
+  }
+
+  public List<Planet> search(String name, String climate, String terrain, int limit) {
+    return searchIndex.search(name, climate, terrain, limit);
+  }
+
+  /** Keyset page over the selected columns only; a null limit returns every matching planet. */
+  @Transactional(readOnly = true)
+  public Slice<PlanetProjection> list(String terrain, String climate, Set<PlanetField> fields, Long afterId,
+      Integer limit) {
+    Example<Planet> query = QueryBuilder.makeQuery(new Planet(climate, terrain));
+    if (limit == null) {
+      return new SliceImpl<>(planetRepository.findProjectedAfter(query, fields, afterId, null));
+    }
+    List<PlanetProjection> planets = planetRepository.findProjectedAfter(query, fields, afterId, limit + 1);
+    boolean hasNext = planets.size() > limit;
+    return new SliceImpl<>(hasNext ? planets.subList(0, limit) : planets, Pageable.ofSize(limit), hasNext);
+  }
+
+  public List<String> suggest(String prefix, int limit) {
+    return nameSuggester.suggest(prefix, limit);
+  }
+
+  @Transactional(readOnly = true)
+  public void export(String terrain, String climate, Consumer<Planet> consumer) {
+    Example<Planet> query = QueryBuilder.makeQuery(new Planet(climate, terrain));
+    try (Stream<Planet> planets = planetRepository.streamAll(query)) {
+      planets.forEach(consumer);
+    }
+  }
+
+  /**
+   * Creates the planet or, when its name is taken, replaces that planet's climate and terrain, in a
+   * single statement. A replaced planet leaves the cache and is removed and added again in the
+   * in-memory indexes.
+   */
+  public PlanetUpsert upsert(Planet planet) {
+    PlanetUpsert upsert = planetRepository.upsertByName(planet);
+    Planet current = upsert.planet();
+    if (upsert.created()) {
+      planetCache.evictMisses(current);
+      eventPublisher.publishEvent(new PlanetCreatedEvent(current));
+    } else {
+      planetCache.evict(current.getId());
+      Optional<Planet> previous = searchIndex.get(current.getId());
+      // The unique index may match names case-insensitively; the stored spelling is kept.
+      previous.ifPresent(old -> current.setName(old.getName()));
+      publishReplaced(previous, current);
+    }
+    return upsert;
+  }
+
+  /**
+   * Reads the planet and writes back the columns that the non-null fields of {@code changes}
+   * actually change, checking the version that was read. Empty if there is no such planet.
+   */
+  public Optional<Planet> update(Long id, Planet changes) {
+    Optional<Planet> updated = planetRepository.updateById(id, changes);
+    updated.ifPresent(planet -> {
+      Optional<Planet> previous = searchIndex.get(id);
+      planetCache.put(planet);
+      publishReplaced(previous, planet);
+    });
+    return updated;
+  }
+
+  /**
+   * Applies the non-null fields of {@code changes} with a single conditional UPDATE, without
+   * reading the planet. Returns the new version, or empty if there is no such planet; a planet at
+   * another version throws {@link PlanetVersionMismatchException}, which costs one version read.
+   */
+  public Optional<Long> update(Long id, long expectedVersion, Planet changes) {
+    if (planetRepository.updateIfVersion(id, expectedVersion, changes) == 0) {
+      Optional<Long> current = planetRepository.findVersionById(id);
+      if (current.isPresent()) {
+        throw new PlanetVersionMismatchException(id, expectedVersion, current.get());
+      }
+      return Optional.empty();
+    }
+
+    planetCache.evict(id);
+    Optional<Planet> previous = searchIndex.get(id);
+    if (previous.isPresent()) {
+      Planet current = new Planet(id, previous.get().getName(), previous.get().getClimate(),
+          previous.get().getTerrain());
+      current.apply(changes);
+      planetCache.evictMisses(current);
+      publishReplaced(previous, current);
+    } else {
+      if (changes.getName() != null) {
+        planetCache.evictMisses(new Planet(id, changes.getName(), null, null));
+      }
+      eventPublisher.publishEvent(new PlanetsChangedUntrackedEvent());
+    }
+    return Optional.of(expectedVersion + 1);
+  }
+
+  /**
+   * Swaps the planet in the in-memory indexes. Without the previous state the indexes cannot take
+   * it out, and adding the new one would count it twice, so they reload instead.
+   */
+  private void publishReplaced(Optional<Planet> previous, Planet current) {
+    if (previous.isPresent()) {
+      eventPublisher.publishEvent(new PlanetRemovedEvent(previous.get()));
+      eventPublisher.publishEvent(new PlanetCreatedEvent(current));
+    } else {
+      eventPublisher.publishEvent(new PlanetsChangedUntrackedEvent());
+    }
+  }
+
+  /**
+   * Deletes with a single statement; returns whether the planet existed. A planet the search index
+   * does not hold cannot be taken out of the in-memory indexes, so they reload instead.
+   */
+  public boolean remove(Long id) {
+    if (planetRepository.deleteReturningCount(id) == 0) {
+      return false;
+    }
+    planetCache.evict(id);
+    searchIndex.get(id).ifPresentOrElse(planet -> eventPublisher.publishEvent(new PlanetRemovedEvent(planet)),
+        () -> eventPublisher.publishEvent(new PlanetsChangedUntrackedEvent()));
+    return true;
+  }
+
+  /** Deletes the given ids with one statement per chunk of the IN clause; missing ids are ignored. */
+  public PlanetRemovalSummary removeAll(List<Long> ids) {
+    List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+    long removed = 0;
+    for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+      int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctIds.size());
+      removed += planetRepository.deleteAllReturningCount(distinctIds.subList(from, to));
+    }
+    if (removed > 0) {
+      int published = 0;
+      for (Long id : distinctIds) {
+        planetCache.evict(id);
+        Optional<Planet> planet = searchIndex.get(id);
+        if (planet.isPresent()) {
+          eventPublisher.publishEvent(new PlanetRemovedEvent(planet.get()));
+          published++;
+        }
+      }
+      publishUntrackedIfMore(removed, published);
+    }
+    return new PlanetRemovalSummary(removed);
+  }
+
+  /**
+   * Deletes every planet matching the same filters as {@link #list(String, String)} with a single
+   * statement. The deleted rows are never read back, so the whole cache is dropped and the
+   * in-memory indexes are told about the matches they hold.
+   */
+  public PlanetRemovalSummary removeAll(String terrain, String climate) {
+    int removed = planetRepository.deleteAllMatching(QueryBuilder.makeQuery(new Planet(climate, terrain)));
+    if (removed > 0) {
+      planetCache.evictAll();
+      List<Planet> matching = searchIndex.matching(climate, terrain);
+      for (Planet planet : matching) {
+        eventPublisher.publishEvent(new PlanetRemovedEvent(planet));
+      }
+      publishUntrackedIfMore(removed, matching.size());
+    }
+    return new PlanetRemovalSummary(removed);
+  }
+
+  // Rows the search index did not hold went without a removal event; the in-memory structures reload instead.
+  private void publishUntrackedIfMore(long removed, int published) {
+    if (removed > published) {
+      eventPublisher.publishEvent(new PlanetsChangedUntrackedEvent());
+    }
+  }
+
+  private Set<String> findNameConflicts(List<Planet> planets) {
+    Set<String> names = new HashSet<>();
+    Set<String> conflicts = new TreeSet<>();
+    List<String> possiblyTaken = new ArrayList<>();
+    for (Planet planet : planets) {
+      if (!names.add(planet.getName())) {
+        conflicts.add(planet.getName());
+      } else if (nameFilter.mightContain(planet.getName())) {
+        possiblyTaken.add(planet.getName());
+      }
+    }
+
+    for (int from = 0; from < possiblyTaken.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+      int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, possiblyTaken.size());
+      List<String> taken = planetRepository.findNamesIn(possiblyTaken.subList(from, to));
+      nameFilter.recordFalsePositives(possiblyTaken.subList(from, to), taken);
+      conflicts.addAll(taken);
+    }
+    return conflicts;
   }
 }
@@ -0,0 +1,11 @@
+package com.example.swplanetapi.domain;
+
+import java.util.Map;
+
+/**
+ * Planet counts overall, per climate, per terrain and per climate and terrain, keyed by lower-cased
+ * climate and terrain as the list filters compare them.
+ */
+public record PlanetStats(long total, Map<String, Long> byClimate, Map<String, Long> byTerrain,
+    Map<String, Map<String, Long>> byClimateAndTerrain) {
+}
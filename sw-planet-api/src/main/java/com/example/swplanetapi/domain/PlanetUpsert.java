@@ -0,0 +1,4 @@
+package com.example.swplanetapi.domain;
+
+public record PlanetUpsert(Planet planet, boolean created) {
+}
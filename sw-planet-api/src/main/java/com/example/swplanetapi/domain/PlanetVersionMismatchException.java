@@ -0,0 +1,15 @@
+package com.example.swplanetapi.domain;
+
+public class PlanetVersionMismatchException extends RuntimeException {
+
+  private final long currentVersion;
+
+  public PlanetVersionMismatchException(Long id, long expectedVersion, long currentVersion) {
+    super("Planet " + id + " is at version " + currentVersion + ", not " + expectedVersion);
+    this.currentVersion = currentVersion;
+  }
+
+  public long getCurrentVersion() {
+    return currentVersion;
+  }
+}
@@ -0,0 +1,8 @@
+package com.example.swplanetapi.domain;
+
+/**
+ * Published after a write changed planets that could not be named one by one, such as rows deleted
+ * by a filter that the in-memory indexes did not hold. Structures derived from the table reload.
+ */
+public record PlanetsChangedUntrackedEvent() {
+}
@@ -6,7 +6,7 @@ import org.springframework.data.domain.ExampleMatcher;
 public class QueryBuilder {
   private QueryBuilder() {}
   public static Example<Planet> makeQuery(Planet planet) {
-    ExampleMatcher exampleMatcher = ExampleMatcher.matchingAll().withIgnoreCase().withIgnoreNullValues();
-    return Example.of(planet, exampleMatcher);
+    ExampleMatcher exampleMatcher = ExampleMatcher.matchingAll().withIgnoreNullValues();
+    return Example.of(Planet.filterProbe(planet.getClimate(), planet.getTerrain()), exampleMatcher);
   }
 }
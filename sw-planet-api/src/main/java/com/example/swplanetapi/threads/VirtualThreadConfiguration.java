@@ -0,0 +1,36 @@
+package com.example.swplanetapi.threads;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+/**
+ * Opt-in mode ({@code planets.threads.virtual.enabled=true}, Java 21+) in which Tomcat runs every
+ * request on its own virtual thread and async MVC work such as streamed exports does the same, so
+ * a request blocked on a slow client or the database no longer holds one of a fixed number of
+ * platform threads. Connection pools are guarded separately, see
+ * {@link com.example.swplanetapi.datasource.ConnectionLimitingDataSource}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = VirtualThreadConfiguration.ENABLED, havingValue = "true")
+public class VirtualThreadConfiguration {
+  public static final String ENABLED = "planets.threads.virtual.enabled";
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+    return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("http-virtual-"));
+  }
+
+  // Replaces Boot's pooled applicationTaskExecutor, which MVC uses for async requests.
+  @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+      AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+  public AsyncTaskExecutor applicationTaskExecutor() {
+    return new TaskExecutorAdapter(VirtualThreads.newThreadPerTaskExecutor("task-virtual-"));
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.swplanetapi.threads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual-thread factories for the opt-in execution mode. The build still targets Java 17, so the
+ * Java 21 API is looked up reflectively and asking for virtual threads on an older runtime fails
+ * fast with a clear message instead of silently falling back to platform threads.
+ */
+public final class VirtualThreads {
+  private static final Method OF_VIRTUAL = method(Thread.class, "ofVirtual");
+  private static final Method NAME = method(type("java.lang.Thread$Builder"), "name", String.class, long.class);
+  private static final Method FACTORY = method(type("java.lang.Thread$Builder"), "factory");
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR =
+      method(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+  private VirtualThreads() {
+  }
+
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null && NAME != null && FACTORY != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  /** Factory for virtual threads named {@code <prefix>0}, {@code <prefix>1}, ... */
+  public static ThreadFactory factory(String namePrefix) {
+    requireSupport();
+    try {
+      Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+      return (ThreadFactory) FACTORY.invoke(builder);
+    } catch (IllegalAccessException | InvocationTargetException ex) {
+      throw new IllegalStateException("Could not create a virtual thread factory", ex);
+    }
+  }
+
+  /** Starts a new virtual thread for every task; there is nothing to pool or size. */
+  public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+    ThreadFactory factory = factory(namePrefix);
+    try {
+      return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+    } catch (IllegalAccessException | InvocationTargetException ex) {
+      throw new IllegalStateException("Could not create a virtual thread executor", ex);
+    }
+  }
+
+  private static void requireSupport() {
+    if (!isSupported()) {
+      throw new IllegalStateException("Virtual threads need Java 21 or later, but this is Java " + Runtime.version());
+    }
+  }
+
+  private static Class<?> type(String name) {
+    try {
+      return Class.forName(name);
+    } catch (ClassNotFoundException ex) {
+      return null;
+    }
+  }
+
+  private static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+    if (type == null) {
+      return null;
+    }
+    try {
+      return type.getMethod(name, parameterTypes);
+    } catch (NoSuchMethodException ex) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.swplanetapi.timing;
+
+import java.util.Locale;
+
+/**
+ * Where the time of the current request went, collected on the thread that handles it. SQL time
+ * covers preparing and executing statements, including waiting for a connection; everything else
+ * the handler does before the body starts, such as building queries, hydrating entities and
+ * service logic, is application time; serialization runs from the start of the body until the
+ * response is committed.
+ */
+public final class RequestTiming {
+  private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+  private final long start;
+  private long sqlNanos;
+  private int statements;
+  private long bodyStart;
+  private long committed;
+
+  private RequestTiming(long start) {
+    this.start = start;
+  }
+
+  /** Starts timing the current thread's request, replacing any earlier one. */
+  public static RequestTiming start() {
+    RequestTiming timing = new RequestTiming(System.nanoTime());
+    CURRENT.set(timing);
+    return timing;
+  }
+
+  /** The timing of the request on this thread, or null outside a timed request. */
+  public static RequestTiming current() {
+    return CURRENT.get();
+  }
+
+  public static void clear() {
+    CURRENT.remove();
+  }
+
+  void addSql(long nanos) {
+    sqlNanos += nanos;
+  }
+
+  void addStatement() {
+    statements++;
+  }
+
+  void bodyStarted() {
+    if (bodyStart == 0) {
+      bodyStart = System.nanoTime();
+    }
+  }
+
+  void committed() {
+    if (committed == 0) {
+      committed = System.nanoTime();
+    }
+  }
+
+  /** Statements executed so far; a JDBC batch counts once, as it is one round trip. */
+  public int getStatements() {
+    return statements;
+  }
+
+  public long getSqlNanos() {
+    return sqlNanos;
+  }
+
+  /** Value for the {@code Server-Timing} header, up to the commit or, if not committed yet, now. */
+  String toHeader() {
+    long end = committed != 0 ? committed : System.nanoTime();
+    long handlerEnd = bodyStart != 0 ? bodyStart : end;
+    return "app;dur=" + millis(handlerEnd - start - sqlNanos)
+        + ", sql;dur=" + millis(sqlNanos) + ";desc=\"" + statements + " statements\""
+        + ", ser;dur=" + millis(end - handlerEnd)
+        + ", total;dur=" + millis(end - start);
+  }
+
+  long totalNanos(long end) {
+    return end - start;
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ROOT, "%.2f", Math.max(0, nanos) / 1e6);
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.swplanetapi.timing;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request timing ({@code planets.server-timing.enabled}, on unless set to false). SQL is
+ * recorded by {@link SqlTimingListener}, which Hibernate registers for every session.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "planets.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfiguration {
+
+  @Bean
+  public ServerTimingFilter serverTimingFilter(
+      @Value("${planets.server-timing.slow-request-threshold:}") Duration slowRequestThreshold) {
+    return new ServerTimingFilter(slowRequestThreshold);
+  }
+}
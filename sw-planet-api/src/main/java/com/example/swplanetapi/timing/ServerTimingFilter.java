@@ -0,0 +1,203 @@
+package com.example.swplanetapi.timing;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Reports each request's {@link RequestTiming} in a {@code Server-Timing} header, for example
+ * {@code app;dur=0.41, sql;dur=1.20;desc="1 statements", ser;dur=0.08, total;dur=1.69}. The
+ * header goes out right before the response commits, so nothing is buffered: serialization is
+ * timed up to that point, which is the whole body when it fits the response buffer. Streamed
+ * bodies, written after the request thread has returned, are reported up to their first flush.
+ * Requests slower than the optional threshold are also logged with their timing.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+  public static final String HEADER = "Server-Timing";
+
+  private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+  private final Duration slowRequestThreshold;
+
+  /** A null threshold turns the slow-request log off. */
+  public ServerTimingFilter(Duration slowRequestThreshold) {
+    this.slowRequestThreshold = slowRequestThreshold;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    RequestTiming timing = RequestTiming.start();
+    TimedResponse timed = new TimedResponse(response, timing);
+    try {
+      chain.doFilter(request, timed);
+      if (request.isAsyncStarted()) {
+        return;
+      }
+      timed.writeHeader();
+    } finally {
+      RequestTiming.clear();
+    }
+
+    if (slowRequestThreshold != null
+        && timing.totalNanos(System.nanoTime()) >= slowRequestThreshold.toNanos()) {
+      log.warn("Slow request: method={} uri={} status={} timing=[{}]", request.getMethod(),
+          request.getRequestURI(), response.getStatus(), timing.toHeader());
+    }
+  }
+
+  /** Adds the header right before the response commits. */
+  private static final class TimedResponse extends HttpServletResponseWrapper {
+    private final RequestTiming timing;
+    private ServletOutputStream outputStream;
+    private boolean headerWritten;
+    private boolean lengthKnown;
+
+    TimedResponse(HttpServletResponse response, RequestTiming timing) {
+      super(response);
+      this.timing = timing;
+    }
+
+    void writeHeader() {
+      if (!headerWritten && !isCommitted()) {
+        timing.committed();
+        setHeader(HEADER, timing.toHeader());
+      }
+      headerWritten = true;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (outputStream == null) {
+        timing.bodyStarted();
+        outputStream = new TimedOutputStream(super.getOutputStream());
+      }
+      return outputStream;
+    }
+
+    // A body of known length is already serialized, and the container commits on its last byte.
+    @Override
+    public void setContentLength(int len) {
+      lengthKnown = true;
+      super.setContentLength(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+      lengthKnown = true;
+      super.setContentLengthLong(len);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+      lengthKnown |= HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+      super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+      lengthKnown |= HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+      super.addHeader(name, value);
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      timing.bodyStarted();
+      writeHeader();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      writeHeader();
+      super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      writeHeader();
+      super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+      writeHeader();
+      super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+      writeHeader();
+      super.sendRedirect(location);
+    }
+
+    /**
+     * Writes the header before a flush, a close, a write that would overflow the buffer or the
+     * first write of a body of known length.
+     */
+    private final class TimedOutputStream extends ServletOutputStream {
+      private final ServletOutputStream delegate;
+      private long buffered;
+
+      TimedOutputStream(ServletOutputStream delegate) {
+        this.delegate = delegate;
+      }
+
+      @Override
+      public void write(int b) throws IOException {
+        beforeWrite(1);
+        delegate.write(b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        beforeWrite(len);
+        delegate.write(b, off, len);
+      }
+
+      @Override
+      public void flush() throws IOException {
+        writeHeader();
+        delegate.flush();
+      }
+
+      @Override
+      public void close() throws IOException {
+        writeHeader();
+        delegate.close();
+      }
+
+      @Override
+      public boolean isReady() {
+        return delegate.isReady();
+      }
+
+      @Override
+      public void setWriteListener(WriteListener writeListener) {
+        delegate.setWriteListener(writeListener);
+      }
+
+      private void beforeWrite(int len) {
+        if (!headerWritten) {
+          buffered += len;
+          if (lengthKnown || buffered >= getBufferSize()) {
+            writeHeader();
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.swplanetapi.timing;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the statements each Hibernate session prepares and executes to the {@link RequestTiming} of
+ * the thread it runs on. Registered for every session through
+ * {@code hibernate.session.events.auto}; sessions outside a timed request are not recorded.
+ */
+public class SqlTimingListener extends BaseSessionEventListener {
+  private long prepareStart;
+  private long executeStart;
+
+  @Override
+  public void jdbcPrepareStatementStart() {
+    prepareStart = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcPrepareStatementEnd() {
+    record(prepareStart, false);
+  }
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    executeStart = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    record(executeStart, true);
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    executeStart = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    record(executeStart, true);
+  }
+
+  private static void record(long start, boolean executed) {
+    RequestTiming timing = RequestTiming.current();
+    if (timing != null) {
+      timing.addSql(System.nanoTime() - start);
+      if (executed) {
+        timing.addStatement();
+      }
+    }
+  }
+}
@@ -1,7 +1,12 @@
 package com.example.swplanetapi.web;
 
+import com.example.swplanetapi.domain.PlanetNameConflictException;
+import com.example.swplanetapi.domain.PlanetNotFoundException;
+import com.example.swplanetapi.domain.PlanetVersionMismatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,21 +16,86 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import javax.validation.ConstraintViolationException;
+import java.util.Map;
+
+/**
+ * Maps domain and validation failures to statuses, counting each mapped failure in
+ * {@code planets.errors} by status and exception so error rates can be watched apart from the
+ * latency of successful requests.
+ */
 @ControllerAdvice
 public class GeneralExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public GeneralExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
+        count(HttpStatus.UNPROCESSABLE_ENTITY, ex);
         return super.handleMethodArgumentNotValid(ex, headers, HttpStatus.UNPROCESSABLE_ENTITY, request);
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     private ResponseEntity<Object> handleConflict(DataIntegrityViolationException ex) {
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+        return error(HttpStatus.CONFLICT, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(PlanetNameConflictException.class)
+    private ResponseEntity<Object> handleNameConflict(PlanetNameConflictException ex) {
+        return error(HttpStatus.CONFLICT, ex, Map.of("conflictingNames", ex.getNames()));
+    }
+
+    // An update without If-Match lost the race against another writer between its read and its write.
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    private ResponseEntity<Object> handleConcurrentUpdate(OptimisticLockingFailureException ex) {
+        return error(HttpStatus.CONFLICT, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(PlanetVersionMismatchException.class)
+    private ResponseEntity<Object> handleVersionMismatch(PlanetVersionMismatchException ex) {
+        return error(HttpStatus.PRECONDITION_FAILED, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    private ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException ex) {
+        return error(HttpStatus.UNPROCESSABLE_ENTITY, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(PlanetNotFoundException.class)
+    private ResponseEntity<Object> handleNotFound(PlanetNotFoundException ex) {
+        return error(HttpStatus.NOT_FOUND, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    private ResponseEntity<Object> handleInvalidCursor(InvalidCursorException ex) {
+        return error(HttpStatus.BAD_REQUEST, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    private ResponseEntity<Object> handleInvalidFields(InvalidFieldsException ex) {
+        return error(HttpStatus.BAD_REQUEST, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    private ResponseEntity<Object> handleInvalidImport(InvalidImportException ex) {
+        return error(HttpStatus.BAD_REQUEST, ex, ex.getMessage());
+    }
+
+    private ResponseEntity<Object> error(HttpStatus status, Exception ex, Object body) {
+        count(status, ex);
+        return ResponseEntity.status(status).body(body);
     }
 
-    @ExceptionHandler(EmptyResultDataAccessException.class)
-    private ResponseEntity<Object> handleBadRequest(EmptyResultDataAccessException ex) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    private void count(HttpStatus status, Exception ex) {
+        Counter.builder("planets.errors")
+                .description("Requests answered with an error status by this handler")
+                .tag("status", Integer.toString(status.value()))
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
     }
 }
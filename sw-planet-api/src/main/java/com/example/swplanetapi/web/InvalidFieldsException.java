@@ -0,0 +1,8 @@
+package com.example.swplanetapi.web;
+
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String field) {
+        super("Unknown field: " + field);
+    }
+}
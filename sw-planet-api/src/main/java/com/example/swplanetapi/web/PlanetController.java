@@ -1,49 +1,370 @@
 package com.example.swplanetapi.web;
 
 import com.example.swplanetapi.domain.Planet;
+import com.example.swplanetapi.domain.PlanetField;
+import com.example.swplanetapi.domain.PlanetImportSummary;
+import com.example.swplanetapi.domain.PlanetImporter;
+import com.example.swplanetapi.domain.PlanetLookup;
+import com.example.swplanetapi.domain.PlanetNotFoundException;
+import com.example.swplanetapi.domain.PlanetProjection;
+import com.example.swplanetapi.domain.PlanetRemovalSummary;
 import com.example.swplanetapi.domain.PlanetService;
+import com.example.swplanetapi.domain.PlanetStats;
+import com.example.swplanetapi.domain.PlanetUpsert;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/planets")
+@Validated
 public class PlanetController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int MAX_SUGGESTIONS = 100;
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final String TOTAL_COUNT = "X-Total-Count";
+
     @Autowired
     private PlanetService planetService;
 
+    @Autowired
+    private PlanetImporter planetImporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
     @PostMapping
     public ResponseEntity<Planet> create(@Valid @RequestBody Planet planet) {
         Planet planetCreated = planetService.create(planet);
         return ResponseEntity.status(HttpStatus.CREATED).body(planetCreated);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<Planet>> createAll(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid Planet> planets) {
+        List<Planet> planetsCreated = planetService.createAll(planets);
+        return ResponseEntity.status(HttpStatus.CREATED).body(planetsCreated);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<PlanetImportSummary> importPlanets(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType format,
+                                                             InputStream body)
+            throws HttpMediaTypeNotSupportedException, InterruptedException {
+        PlanetRecordReader rows = PlanetRecordReader.of(format, body, objectMapper.readerFor(Planet.class));
+        return ResponseEntity.ok(planetImporter.importAll(rows));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<PlanetImportSummary> importPlanets(@RequestParam("file") MultipartFile file)
+            throws IOException, HttpMediaTypeNotSupportedException, InterruptedException {
+        MediaType format = PlanetRecordReader.formatOf(file.getContentType(), file.getOriginalFilename());
+        try (InputStream input = file.getInputStream()) {
+            PlanetRecordReader rows = PlanetRecordReader.of(format, input, objectMapper.readerFor(Planet.class));
+            return ResponseEntity.ok(planetImporter.importAll(rows));
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Planet> get(@PathVariable("id") Long id) {
-        return planetService.get(id).map(planet -> ResponseEntity.ok(planet))
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<Planet> get(@PathVariable("id") Long id,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Revalidating only needs the version, which the cache or a single-column read can answer.
+        if (ifNoneMatch != null) {
+            Optional<String> current = planetService.getVersion(id).map(version -> PlanetETags.of(id, version));
+            if (current.filter(etag -> PlanetETags.matches(ifNoneMatch, etag)).isPresent()) {
+                return notModified(current.get());
+            }
+        }
+        return planetService.get(id).map(planet -> ResponseEntity.ok().eTag(PlanetETags.of(planet)).body(planet))
+                .orElseThrow(() -> new PlanetNotFoundException(id));
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<PlanetProjection> get(@PathVariable("id") Long id, @RequestParam List<String> fields) {
+        Set<PlanetField> selected = PlanetFields.parse(fields);
+        return planetService.get(id).map(planet -> ResponseEntity.ok(PlanetProjection.of(planet, selected)))
+                .orElseThrow(() -> new PlanetNotFoundException(id));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<PlanetLookup<?>> getAll(@RequestParam @NotEmpty @Size(max = MAX_BATCH_SIZE) List<Long> ids,
+                                                  @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(resolve(ids, fields));
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<PlanetLookup<?>> lookup(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull Long> ids,
+                                                  @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(resolve(ids, fields));
     }
 
     @GetMapping("/name/{name}")
     public ResponseEntity<Planet> getByName(@PathVariable("name") String name) {
-        return planetService.getByName(name).map(planet -> ResponseEntity.ok(planet))
-                .orElseGet(() -> ResponseEntity.notFound().build());
+        return planetService.getByName(name).map(planet -> ResponseEntity.ok().eTag(PlanetETags.of(planet)).body(planet))
+                .orElseThrow(() -> new PlanetNotFoundException(name));
+    }
+
+    @GetMapping(value = "/name/{name}", params = "fields")
+    public ResponseEntity<PlanetProjection> getByName(@PathVariable("name") String name,
+                                                      @RequestParam List<String> fields) {
+        Set<PlanetField> selected = PlanetFields.parse(fields);
+        return planetService.getByName(name).map(planet -> ResponseEntity.ok(PlanetProjection.of(planet, selected)))
+                .orElseThrow(() -> new PlanetNotFoundException(name));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestParam String prefix,
+                                                @RequestParam(required = false) Integer limit) {
+        int size = limit == null ? DEFAULT_SUGGESTIONS : Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(planetService.suggest(prefix, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<Planet>> search(@RequestParam(required = false) String name,
+                                               @RequestParam(required = false) String climate,
+                                               @RequestParam(required = false) String terrain,
+                                               @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(planetService.search(name, climate, terrain, pageSize));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<PlanetStats> stats(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                             String ifNoneMatch) {
+        String etag = PlanetETags.ofList(planetService.listVersion());
+        if (PlanetETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).body(planetService.stats());
+    }
+
+    /** How many planets the same filters would list, in X-Total-Count, without reading them. */
+    @RequestMapping(method = RequestMethod.HEAD)
+    public ResponseEntity<Void> count(@RequestParam(required = false) String terrain,
+                                      @RequestParam(required = false) String climate) {
+        String etag = PlanetETags.ofList(planetService.listVersion());
+        long count = planetService.count(terrain, climate);
+        return ResponseEntity.ok().eTag(etag).header(TOTAL_COUNT, Long.toString(count)).build();
     }
 
     @GetMapping
     public ResponseEntity<List<Planet>> list(@RequestParam(required = false) String terrain,
-                                             @RequestParam(required = false) String climate) {
-        List<Planet> planets = planetService.list(terrain, climate);
-        return ResponseEntity.ok(planets);
+                                             @RequestParam(required = false) String climate,
+                                             @RequestParam(required = false) Integer limit,
+                                             @RequestParam(required = false) String after,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = PlanetETags.ofList(planetService.listVersion());
+        if (PlanetETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (limit == null && after == null) {
+            List<Planet> planets = planetService.list(terrain, climate);
+            return ResponseEntity.ok().eTag(etag).body(planets);
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Slice<Planet> page = planetService.list(terrain, climate, PlanetCursor.decode(after), pageSize);
+        return withNextLink(page, Planet::getId, pageSize, etag);
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<List<PlanetProjection>> list(@RequestParam(required = false) String terrain,
+                                                       @RequestParam(required = false) String climate,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(required = false) String after,
+                                                       @RequestParam List<String> fields,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                       String ifNoneMatch) {
+        Set<PlanetField> selected = PlanetFields.parse(fields);
+        String etag = PlanetETags.ofList(planetService.listVersion());
+        if (PlanetETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (limit == null && after == null) {
+            return ResponseEntity.ok().eTag(etag).body(planetService.list(terrain, climate, selected, null, null).getContent());
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Slice<PlanetProjection> page = planetService.list(terrain, climate, selected, PlanetCursor.decode(after), pageSize);
+        return withNextLink(page, PlanetProjection::id, pageSize, etag);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String terrain,
+                                                        @RequestParam(required = false) String climate) {
+        ObjectWriter writer = objectMapper.writerFor(Planet.class);
+        StreamingResponseBody body = outputStream ->
+                planetService.export(terrain, climate, planet -> writeLine(writer, outputStream, planet));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Replaces the planet. With If-Match the write is a single conditional UPDATE and a stale tag
+     * answers 412; without it the planet is read first and a concurrent update answers 409. Either
+     * way the stored planet is returned with its new tag.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<Planet> replace(@PathVariable("id") Long id, @Valid @RequestBody Planet planet,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        planet.setId(id);
+        if (isUnconditional(ifMatch)) {
+            return updated(id, planetService.update(id, planet));
+        }
+        Optional<Long> version = PlanetETags.version(ifMatch, id);
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        // The conditional UPDATE left the cache without the planet, so this reads the stored row.
+        Optional<Planet> stored = planetService.update(id, version.get(), planet).flatMap(newVersion -> planetService.get(id));
+        return updated(id, stored);
+    }
+
+    /**
+     * Changes only the fields present in the body. With If-Match the planet is not read at all and
+     * the answer is 204 with the new tag.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Planet> update(@PathVariable("id") Long id, @RequestBody Planet changes,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        changes.setId(null);
+        Set<ConstraintViolation<Planet>> violations = new HashSet<>();
+        if (changes.getName() != null) {
+            violations.addAll(validator.validateProperty(changes, "name"));
+        }
+        if (changes.getClimate() != null) {
+            violations.addAll(validator.validateProperty(changes, "climate"));
+        }
+        if (changes.getTerrain() != null) {
+            violations.addAll(validator.validateProperty(changes, "terrain"));
+        }
+        rejectIfInvalid(violations);
+
+        if (isUnconditional(ifMatch)) {
+            return updated(id, planetService.update(id, changes));
+        }
+        Optional<Long> version = PlanetETags.version(ifMatch, id);
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        return planetService.update(id, version.get(), changes)
+                .map(newVersion -> ResponseEntity.noContent().eTag(PlanetETags.of(id, newVersion)).<Planet>build())
+                .orElseThrow(() -> new PlanetNotFoundException(id));
+    }
+
+    @PutMapping("/name/{name}")
+    public ResponseEntity<Planet> upsert(@PathVariable("name") String name, @RequestBody Planet planet) {
+        planet.setId(null);
+        planet.setName(name);
+        rejectIfInvalid(validator.validate(planet));
+        PlanetUpsert upsert = planetService.upsert(planet);
+        return ResponseEntity.status(upsert.created() ? HttpStatus.CREATED : HttpStatus.OK).body(upsert.planet());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> remove(@PathVariable("id") Long id) {
-        planetService.remove(id);
+        if (!planetService.remove(id)) {
+            throw new PlanetNotFoundException(id);
+        }
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<PlanetRemovalSummary> removeAll(
+            @RequestParam @NotEmpty @Size(max = MAX_BATCH_SIZE) List<Long> ids) {
+        return ResponseEntity.ok(planetService.removeAll(ids));
+    }
+
+    // At least one filter is required so a bare DELETE /planets cannot empty the table.
+    @DeleteMapping(params = "!ids")
+    public ResponseEntity<PlanetRemovalSummary> removeAll(@RequestParam(required = false) String terrain,
+                                                          @RequestParam(required = false) String climate) {
+        if (terrain == null && climate == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(planetService.removeAll(terrain, climate));
+    }
+
+    private PlanetLookup<?> resolve(List<Long> ids, List<String> fields) {
+        PlanetLookup<Planet> lookup = planetService.getAll(ids);
+        if (fields == null) {
+            return lookup;
+        }
+        Set<PlanetField> selected = PlanetFields.parse(fields);
+        return lookup.map(planet -> PlanetProjection.of(planet, selected));
+    }
+
+    private static void rejectIfInvalid(Set<ConstraintViolation<Planet>> violations) {
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    // "If-Match: *" only asks for the planet to exist, which the read-modify-write path checks.
+    private static boolean isUnconditional(String ifMatch) {
+        return ifMatch == null || ifMatch.trim().equals("*");
+    }
+
+    private static ResponseEntity<Planet> updated(Long id, Optional<Planet> planet) {
+        return planet.map(updated -> ResponseEntity.ok().eTag(PlanetETags.of(updated)).body(updated))
+                .orElseThrow(() -> new PlanetNotFoundException(id));
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    private static <T> ResponseEntity<List<T>> withNextLink(Slice<T> page, Function<T, Long> id, int pageSize,
+                                                            String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (page.hasNext()) {
+            T last = page.getContent().get(page.getNumberOfElements() - 1);
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", PlanetCursor.encode(id.apply(last)))
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getContent());
+    }
+
+    private static void writeLine(ObjectWriter writer, OutputStream outputStream, Planet planet) {
+        try {
+            outputStream.write(writer.writeValueAsBytes(planet));
+            outputStream.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 }
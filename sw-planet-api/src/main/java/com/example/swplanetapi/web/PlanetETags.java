@@ -0,0 +1,128 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.Planet;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+final class PlanetETags {
+    // The encodings a planet goes out in, in the order of their converters. JSON keeps the bare tag.
+    private static final Map<MediaType, String> ENCODINGS = new LinkedHashMap<>();
+
+    static {
+        ENCODINGS.put(MediaType.APPLICATION_JSON, "");
+        ENCODINGS.put(new MediaType("application", "*+json"), "");
+        ENCODINGS.put(MediaType.APPLICATION_CBOR, "-cbor");
+        ENCODINGS.put(new MediaType("application", "x-jackson-smile"), "-smile");
+        ENCODINGS.put(PlanetProtobufHttpMessageConverter.PROTOBUF, "-protobuf");
+    }
+
+    private PlanetETags() {
+    }
+
+    static String of(Planet planet) {
+        return of(planet.getId(), planet.getVersion());
+    }
+
+    // The id keeps a recreated planet from matching the tag of the one it replaced under the same name.
+    // Strong, so each encoding gets its own tag: a cache revalidating the CBOR body must not be told
+    // that it is still the JSON one.
+    static String of(Long id, Long version) {
+        return "\"" + id + "-" + version + encoding(currentAccept()) + "\"";
+    }
+
+    /**
+     * The tag suffix of the encoding the Accept header gets, picked the way Spring MVC picks among
+     * the planet converters: most specific and preferred types first, converter order on ties.
+     */
+    static String encoding(String accept) {
+        List<MediaType> requested;
+        try {
+            requested = accept == null || accept.isBlank() ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return "";
+        }
+        MediaType.sortBySpecificityAndQuality(requested);
+        for (MediaType type : requested) {
+            for (Map.Entry<MediaType, String> encoding : ENCODINGS.entrySet()) {
+                if (type.isCompatibleWith(encoding.getKey())) {
+                    return encoding.getValue();
+                }
+            }
+        }
+        return "";
+    }
+
+    private static String currentAccept() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet
+                ? servlet.getRequest().getHeader(HttpHeaders.ACCEPT) : null;
+    }
+
+    // Weak, as the same list goes out in several encodings and compressed; Tomcat does not compress
+    // a response that carries a strong tag.
+    static String ofList(String listVersion) {
+        return "W/\"" + listVersion + "\"";
+    }
+
+    /**
+     * The version named by an If-Match tag issued for this planet, in any of its encodings: they all
+     * stand for the same stored state. If-Match compares strongly, so weak tags, tags of other
+     * planets and malformed headers give nothing.
+     */
+    static Optional<Long> version(String ifMatch, Long id) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(ifMatch);
+        String prefix = "\"" + id + "-";
+        try {
+            for (String tag : headers.getIfMatch()) {
+                if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+                    return Optional.of(Long.parseLong(withoutEncoding(tag.substring(prefix.length(), tag.length() - 1))));
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        return Optional.empty();
+    }
+
+    /** Weak comparison, as If-None-Match requires; a malformed header matches nothing. */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(ifNoneMatch);
+        try {
+            for (String tag : headers.getIfNoneMatch()) {
+                if (tag.equals("*") || opaque(tag).equals(opaque(etag))) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        return false;
+    }
+
+    private static String withoutEncoding(String version) {
+        for (String suffix : ENCODINGS.values()) {
+            if (!suffix.isEmpty() && version.endsWith(suffix)) {
+                return version.substring(0, version.length() - suffix.length());
+            }
+        }
+        return version;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
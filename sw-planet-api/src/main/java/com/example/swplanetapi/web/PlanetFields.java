@@ -0,0 +1,26 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.PlanetField;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+final class PlanetFields {
+
+    private PlanetFields() {
+    }
+
+    static Set<PlanetField> parse(List<String> fields) {
+        Set<PlanetField> parsed = EnumSet.of(PlanetField.ID);
+        for (String field : fields) {
+            try {
+                parsed.add(PlanetField.valueOf(field.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidFieldsException(field);
+            }
+        }
+        return parsed;
+    }
+}
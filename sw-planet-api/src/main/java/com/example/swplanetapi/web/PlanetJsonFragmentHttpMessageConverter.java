@@ -0,0 +1,122 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.Planet;
+import com.example.swplanetapi.domain.PlanetRemovedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Writes planets and planet lists as JSON from per-planet fragments: each planet's bytes, as the
+ * application's {@link ObjectMapper} writes them, are cached by id together with the version they
+ * were written at. A list is then the cached fragments copied one after the other into the response
+ * stream between brackets and commas, so neither Jackson nor a buffer for the whole body is involved
+ * once the planets have been served before.
+ *
+ * <p>A planet at another version than its fragment is written again; removals and updates also drop
+ * the fragment right away. Planets without an id or a version, such as request bodies echoed back,
+ * are written without caching. Reading is left to the Jackson converter.
+ */
+public class PlanetJsonFragmentHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private final ObjectWriter writer;
+    private final Cache<Long, Fragment> fragments;
+
+    public PlanetJsonFragmentHttpMessageConverter(ObjectMapper objectMapper, long maximumBytes,
+                                                  MeterRegistry meterRegistry) {
+        super(MediaType.APPLICATION_JSON);
+        this.writer = objectMapper.writerFor(Planet.class);
+        this.fragments = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Long id, Fragment fragment) -> fragment.json().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "planetJsonFragments");
+    }
+
+    @EventListener
+    public void onPlanetRemoved(PlanetRemovedEvent event) {
+        fragments.invalidate(event.planet().getId());
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Planet.class == clazz || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (PlanetTypes.isPlanet(type) || PlanetTypes.isPlanetList(type)) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream body = outputMessage.getBody();
+        if (value instanceof Planet planet) {
+            body.write(fragment(planet));
+            return;
+        }
+        body.write('[');
+        boolean first = true;
+        for (Object planet : (Collection<?>) value) {
+            if (!first) {
+                body.write(',');
+            }
+            body.write(planet == null ? NULL : fragment((Planet) planet));
+            first = false;
+        }
+        body.write(']');
+    }
+
+    byte[] fragment(Planet planet) throws IOException {
+        Long id = planet.getId();
+        Long version = planet.getVersion();
+        if (id == null || version == null) {
+            return writer.writeValueAsBytes(planet);
+        }
+        Fragment cached = fragments.getIfPresent(id);
+        if (cached != null && cached.version() == version) {
+            return cached.json();
+        }
+        byte[] json = writer.writeValueAsBytes(planet);
+        fragments.put(id, new Fragment(version, json));
+        return json;
+    }
+
+    private record Fragment(long version, byte[] json) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.Planet;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and writes a {@link Planet} or a list of planets as {@code application/x-protobuf}, with
+ * this schema:
+ *
+ * <pre>
+ * message Planet {
+ *   int64 id = 1;
+ *   string name = 2;
+ *   string climate = 3;
+ *   string terrain = 4;
+ * }
+ *
+ * message PlanetList {
+ *   repeated Planet planets = 1;
+ * }
+ * </pre>
+ *
+ * The two messages are encoded by hand so the entity goes to the wire without an intermediate
+ * generated class; unknown fields are skipped, and absent fields stay null.
+ */
+public class PlanetProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final int ID = tag(1, WireFormat.WIRETYPE_VARINT);
+    private static final int NAME = tag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int CLIMATE = tag(3, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int TERRAIN = tag(4, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int PLANETS = tag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    public PlanetProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    // Only consulted with the raw class, to list the media types for a value; the element type of a
+    // list is checked by the generic canRead and canWrite.
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Planet.class == clazz || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return (PlanetTypes.isPlanet(type) || PlanetTypes.isPlanetList(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (PlanetTypes.isPlanet(type) || PlanetTypes.isPlanetList(type)) && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputMessage.getBody());
+        try {
+            return PlanetTypes.isPlanet(type) ? readPlanet(input) : readPlanets(input);
+        } catch (InvalidProtocolBufferException ex) {
+            throw new HttpMessageNotReadableException("Invalid protobuf body: " + ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (value instanceof Planet planet) {
+            writePlanet(output, planet);
+        } else {
+            for (Object planet : (Collection<?>) value) {
+                output.writeUInt32NoTag(PLANETS);
+                output.writeUInt32NoTag(size((Planet) planet));
+                writePlanet(output, (Planet) planet);
+            }
+        }
+        output.flush();
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return fieldNumber << 3 | wireType;
+    }
+
+    private static List<Planet> readPlanets(CodedInputStream input) throws IOException {
+        List<Planet> planets = new ArrayList<>();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == PLANETS) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                planets.add(readPlanet(input));
+                input.popLimit(limit);
+            } else {
+                input.skipField(tag);
+            }
+        }
+        return planets;
+    }
+
+    private static Planet readPlanet(CodedInputStream input) throws IOException {
+        Planet planet = new Planet();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == ID) {
+                planet.setId(input.readInt64());
+            } else if (tag == NAME) {
+                planet.setName(input.readStringRequireUtf8());
+            } else if (tag == CLIMATE) {
+                planet.setClimate(input.readStringRequireUtf8());
+            } else if (tag == TERRAIN) {
+                planet.setTerrain(input.readStringRequireUtf8());
+            } else {
+                input.skipField(tag);
+            }
+        }
+        return planet;
+    }
+
+    private static void writePlanet(CodedOutputStream output, Planet planet) throws IOException {
+        if (planet.getId() != null) {
+            output.writeInt64(1, planet.getId());
+        }
+        if (planet.getName() != null) {
+            output.writeString(2, planet.getName());
+        }
+        if (planet.getClimate() != null) {
+            output.writeString(3, planet.getClimate());
+        }
+        if (planet.getTerrain() != null) {
+            output.writeString(4, planet.getTerrain());
+        }
+    }
+
+    private static int size(Planet planet) {
+        int size = 0;
+        if (planet.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(1, planet.getId());
+        }
+        if (planet.getName() != null) {
+            size += CodedOutputStream.computeStringSize(2, planet.getName());
+        }
+        if (planet.getClimate() != null) {
+            size += CodedOutputStream.computeStringSize(3, planet.getClimate());
+        }
+        if (planet.getTerrain() != null) {
+            size += CodedOutputStream.computeStringSize(4, planet.getTerrain());
+        }
+        return size;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.Planet;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads planets one line at a time from a CSV (with a {@code name,climate,terrain} header, in any
+ * order) or NDJSON upload. Lines that cannot be parsed come back as an empty {@link Planet} so the
+ * importer counts them as invalid instead of aborting.
+ */
+abstract class PlanetRecordReader implements Iterator<Planet> {
+    static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    private final BufferedReader reader;
+    private String nextLine;
+
+    private PlanetRecordReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    static PlanetRecordReader of(MediaType format, InputStream input, ObjectReader planetReader)
+            throws HttpMediaTypeNotSupportedException {
+        if (TEXT_CSV.isCompatibleWith(format)) {
+            return new Csv(input);
+        }
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(format)) {
+            return new Ndjson(input, planetReader);
+        }
+        throw new HttpMediaTypeNotSupportedException(format, List.of(TEXT_CSV, MediaType.APPLICATION_NDJSON));
+    }
+
+    static MediaType formatOf(String contentType, String filename) {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return TEXT_CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return MediaType.APPLICATION_NDJSON;
+        }
+        return contentType == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(contentType);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextLine == null) {
+            nextLine = readLine();
+        }
+        return nextLine != null;
+    }
+
+    @Override
+    public Planet next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        return parse(line);
+    }
+
+    protected abstract Planet parse(String line);
+
+    protected String readLine() {
+        try {
+            String line = reader.readLine();
+            while (line != null && line.isBlank()) {
+                line = reader.readLine();
+            }
+            return line;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static final class Ndjson extends PlanetRecordReader {
+        private final ObjectReader planetReader;
+
+        private Ndjson(InputStream input, ObjectReader planetReader) {
+            super(input);
+            this.planetReader = planetReader;
+        }
+
+        @Override
+        protected Planet parse(String line) {
+            try {
+                return planetReader.readValue(line);
+            } catch (JsonProcessingException ex) {
+                return new Planet();
+            }
+        }
+    }
+
+    private static final class Csv extends PlanetRecordReader {
+        private int nameColumn = -1;
+        private int climateColumn = -1;
+        private int terrainColumn = -1;
+
+        private Csv(InputStream input) {
+            super(input);
+            String header = readLine();
+            List<String> columns = header == null ? List.of() : split(header);
+            for (int i = 0; i < columns.size(); i++) {
+                switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "name" -> nameColumn = i;
+                    case "climate" -> climateColumn = i;
+                    case "terrain" -> terrainColumn = i;
+                    default -> {
+                    }
+                }
+            }
+            if (header != null && (nameColumn < 0 || climateColumn < 0 || terrainColumn < 0)) {
+                throw new InvalidImportException("CSV header must contain name, climate and terrain: " + header);
+            }
+        }
+
+        @Override
+        protected Planet parse(String line) {
+            List<String> fields = split(line);
+            return new Planet(field(fields, nameColumn), field(fields, climateColumn), field(fields, terrainColumn));
+        }
+
+        private static String field(List<String> fields, int column) {
+            return column < fields.size() ? fields.get(column) : null;
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.Planet;
+import org.springframework.core.ResolvableType;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/** Body types that the planet-specific message converters take on. */
+final class PlanetTypes {
+
+    private PlanetTypes() {
+    }
+
+    static boolean isPlanet(Type type) {
+        return type == Planet.class;
+    }
+
+    // List<Planet> and its supertypes, so a List<Planet> value can be written and read back.
+    static boolean isPlanetList(Type type) {
+        ResolvableType resolved = ResolvableType.forType(type);
+        Class<?> raw = resolved.resolve();
+        return raw != null && raw != Object.class && raw.isAssignableFrom(List.class)
+                && resolved.asCollection().resolveGeneric(0) == Planet.class;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.swplanetapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+/**
+ * Binary encodings next to JSON, chosen by Accept and Content-Type: CBOR
+ * ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) for every body, and
+ * protobuf ({@code application/x-protobuf}) for planets and planet lists. JSON stays the default
+ * for clients that accept anything. Compression is Tomcat's, set up under {@code server.compression}.
+ * Planets going out as JSON are copied from cached fragments by
+ * {@link PlanetJsonFragmentHttpMessageConverter}, which Boot places ahead of the Jackson converter.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WireFormatConfiguration implements WebMvcConfigurer {
+
+    // Spring MVC registers both on its own once the formats are on the classpath, with a default
+    // mapper; these beans take their places with a mapper carrying Boot's spring.jackson settings.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public PlanetJsonFragmentHttpMessageConverter planetJsonFragmentHttpMessageConverter(ObjectMapper objectMapper,
+            @Value("${planets.cache.json-fragments.maximum-size:64MB}") DataSize maximumSize, MeterRegistry meterRegistry) {
+        return new PlanetJsonFragmentHttpMessageConverter(objectMapper, maximumSize.toBytes(), meterRegistry);
+    }
+
+    // Last, so that a request accepting anything is still answered in JSON.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new PlanetProtobufHttpMessageConverter());
+    }
+
+    // One URL now has several representations, and caches must not hand one to a client asking for another.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/planets", "/planets/**");
+    }
+}
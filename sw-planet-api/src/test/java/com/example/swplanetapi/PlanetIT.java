@@ -1,10 +1,12 @@
 package com.example.swplanetapi;
 
 import com.example.swplanetapi.domain.Planet;
+import com.example.swplanetapi.timing.ServerTimingFilter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -74,6 +76,7 @@ public class PlanetIT {
         assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(sut.getBody()).hasSize(3);
         assertThat(sut.getBody()[0]).isEqualTo(TATOOINE);
+        assertThat(sut.getHeaders().getFirst(ServerTimingFilter.HEADER)).contains("sql;dur=").contains("desc=\"1 statements\"");
 
     }
 
@@ -110,6 +113,7 @@ public class PlanetIT {
         assertThat(sut.getBody()).hasSize(1);
         assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(sut.getBody()[0]).isEqualTo(TATOOINE);
+        assertThat(sut.getHeaders().getFirst(ServerTimingFilter.HEADER)).contains("desc=\"1 statements\"");
     }
 
     @Test
@@ -120,4 +124,27 @@ public class PlanetIT {
         assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
+    @Test
+    public void upsertPlanetByName_CreatesThenUpdates() {
+        HttpEntity<Planet> hoth = new HttpEntity<>(new Planet("frozen", "tundra"));
+        ResponseEntity<Planet> created = restTemplate.exchange("/planets/name/Hoth", HttpMethod.PUT, hoth, Planet.class);
+        ResponseEntity<Planet> updated = restTemplate.exchange("/planets/name/Hoth", HttpMethod.PUT,
+                new HttpEntity<>(new Planet("frozen", "ice")), Planet.class);
+
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getBody().getId()).isEqualTo(created.getBody().getId());
+        assertThat(restTemplate.getForObject("/planets/" + created.getBody().getId(), Planet.class).getTerrain())
+                .isEqualTo("ice");
+    }
+
+    @Test
+    public void removePlanetsByFilter_ReturnsRemovedCount() {
+        ResponseEntity<String> sut = restTemplate.exchange("/planets?climate=temperate", HttpMethod.DELETE, null, String.class);
+
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody()).isEqualTo("{\"removed\":2}");
+        assertThat(sut.getHeaders().getFirst(ServerTimingFilter.HEADER)).contains("desc=\"1 statements\"");
+    }
+
 }
@@ -0,0 +1,72 @@
+package com.example.swplanetapi.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConnectionLimitingDataSourceTest {
+
+    private JdbcDataSource target;
+
+    @BeforeEach
+    public void beforeEach() {
+        target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:limited;DB_CLOSE_DELAY=-1");
+    }
+
+    @DisplayName("Teste unitário: Testa que chamadas além do limite esperam e falham no tempo limite")
+    @Test
+    public void getConnection_BeyondLimit_TimesOut() throws SQLException {
+        DataSource dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+            assertThatThrownBy(dataSource::getConnection)
+                    .isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessageContaining("all 1 are in use");
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+    }
+
+    @DisplayName("Teste unitário: Testa que fechar a mesma conexão duas vezes devolve uma única permissão")
+    @Test
+    public void close_Twice_ReleasesOnePermit() throws SQLException {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 2, Duration.ofMillis(50));
+
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+        Connection second = dataSource.getConnection();
+        Connection third = dataSource.getConnection();
+
+        assertThat(second).isNotEqualTo(third).isEqualTo(second);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        second.close();
+        third.close();
+    }
+
+    @DisplayName("Teste unitário: Testa que a permissão é devolvida quando o pool falha ao entregar a conexão")
+    @Test
+    public void getConnection_WhenTargetFails_ReleasesPermit() throws SQLException {
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("pool closed"));
+        DataSource dataSource = new ConnectionLimitingDataSource(failing, 1, Duration.ofMillis(50));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool closed");
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool closed");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.swplanetapi.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.Cookie;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadYourWritesFilterTest {
+
+    private final Clock clock = Clock.fixed(Instant.ofEpochMilli(1_000_000), ZoneOffset.UTC);
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5), clock);
+
+    @DisplayName("Teste unitário: Testa que uma requisição que escreveu devolve o cookie de afinidade com o primário")
+    @Test
+    public void doFilter_WhenRequestWrote_SetsStickyCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/planets"), response,
+                new MockFilterChain(new javax.servlet.http.HttpServlet() {
+                    @Override
+                    protected void service(javax.servlet.http.HttpServletRequest req, javax.servlet.http.HttpServletResponse res)
+                            throws java.io.IOException {
+                        ReadYourWrites.recordWrite();
+                        res.getWriter().write("{}");
+                    }
+                }));
+
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getValue()).isEqualTo("1005000");
+        assertThat(ReadYourWrites.wrote()).isFalse();
+    }
+
+    @DisplayName("Teste unitário: Testa que uma requisição só de leitura não devolve o cookie")
+    @Test
+    public void doFilter_WhenRequestOnlyRead_DoesNotSetCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/planets/1"), response, new MockFilterChain());
+
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE)).isNull();
+    }
+
+    @DisplayName("Teste unitário: Testa que o cookie dentro da janela fixa a requisição no primário")
+    @Test
+    public void doFilter_WithCookieInsideWindow_PinsToPrimary() throws Exception {
+        assertThat(pinnedDuring(new Cookie(ReadYourWritesFilter.COOKIE, "1004000"))).isTrue();
+        assertThat(pinnedDuring(new Cookie(ReadYourWritesFilter.COOKIE, "999000"))).isFalse();
+        assertThat(pinnedDuring(new Cookie(ReadYourWritesFilter.COOKIE, "garbage"))).isFalse();
+    }
+
+    private boolean pinnedDuring(Cookie cookie) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/planets/1");
+        request.setCookies(cookie);
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> pinned.set(ReadYourWrites.isPinned()));
+
+        return pinned.get();
+    }
+}
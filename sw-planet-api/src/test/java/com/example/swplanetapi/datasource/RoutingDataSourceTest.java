@@ -0,0 +1,114 @@
+package com.example.swplanetapi.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    public void beforeEach() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new RoutingDataSource(primary, List.of(replica), ReplicaSelection.ROUND_ROBIN));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        ReadYourWrites.reset();
+    }
+
+    @DisplayName("Teste unitário: Testa que transações somente leitura vão para a réplica")
+    @Test
+    public void readOnlyTransaction_RoutesToReplica() {
+        assertThat(databaseInReadOnlyTransaction()).isEqualTo("replica");
+    }
+
+    @DisplayName("Teste unitário: Testa que transações de escrita vão para o primário e registram a escrita")
+    @Test
+    public void readWriteTransaction_RoutesToPrimaryAndRecordsWrite() {
+        ReadYourWrites.track();
+
+        assertThat(databaseInReadWriteTransaction()).isEqualTo("primary");
+        assertThat(ReadYourWrites.wrote()).isTrue();
+    }
+
+    @DisplayName("Teste unitário: Testa que leituras após uma escrita na mesma requisição vão para o primário")
+    @Test
+    public void readOnlyTransaction_AfterWrite_RoutesToPrimary() {
+        ReadYourWrites.track();
+        databaseInReadWriteTransaction();
+
+        assertThat(databaseInReadOnlyTransaction()).isEqualTo("primary");
+    }
+
+    @DisplayName("Teste unitário: Testa que escritas fora de uma requisição não fixam a thread no primário")
+    @Test
+    public void readOnlyTransaction_AfterWriteOutsideRequest_RoutesToReplica() {
+        assertThat(databaseInReadWriteTransaction()).isEqualTo("primary");
+
+        assertThat(ReadYourWrites.wrote()).isFalse();
+        assertThat(databaseInReadOnlyTransaction()).isEqualTo("replica");
+    }
+
+    @DisplayName("Teste unitário: Testa que leituras fixadas no primário não vão para a réplica")
+    @Test
+    public void readOnlyTransaction_OnPrimary_RoutesToPrimary() {
+        assertThat(ReadYourWrites.onPrimary(this::databaseInReadOnlyTransaction)).isEqualTo("primary");
+        assertThat(databaseInReadOnlyTransaction()).isEqualTo("replica");
+    }
+
+    @DisplayName("Teste unitário: Testa a escolha da réplica com menos conexões em uso")
+    @Test
+    public void leastConnections_WithoutPoolStatistics_ChoosesFirstReplica() {
+        assertThat(ReplicaSelection.LEAST_CONNECTIONS.choose(List.of(database("a"), database("b")))).isZero();
+        assertThat(ReplicaSelection.ROUND_ROBIN.choose(List.of(database("a"), database("b"))))
+                .isNotEqualTo(ReplicaSelection.ROUND_ROBIN.choose(List.of(database("a"), database("b"))));
+    }
+
+    private String databaseInReadOnlyTransaction() {
+        return readOnlyTransaction.execute(status -> databaseName());
+    }
+
+    private String databaseInReadWriteTransaction() {
+        return readWriteTransaction.execute(status -> databaseName());
+    }
+
+    private String databaseName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(16))");
+        jdbcTemplate.execute("DELETE FROM whoami");
+        jdbcTemplate.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.swplanetapi.domain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static com.example.swplanetapi.common.PlanetConstants.ALDERAAN;
+import static com.example.swplanetapi.common.PlanetConstants.TATOOINE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlanetCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PlanetCache planetCache = new PlanetCache(100, Duration.ofMinutes(1), Duration.ofSeconds(5), meterRegistry);
+
+    @DisplayName("Teste unitário: Testa o cache retornando o planeta por id e por nome")
+    @Test
+    public void put_ReturnsPlanetByIdAndName() {
+        planetCache.put(TATOOINE);
+
+        assertThat(planetCache.getById(TATOOINE.getId())).isEqualTo(TATOOINE);
+        assertThat(planetCache.getByName(TATOOINE.getName())).isEqualTo(TATOOINE);
+        assertThat(planetCache.getByName(ALDERAAN.getName())).isNull();
+    }
+
+    @DisplayName("Teste unitário: Testa que remover o id também deixa de servir o planeta por nome")
+    @Test
+    public void evict_StopsServingPlanetByName() {
+        planetCache.put(TATOOINE);
+
+        planetCache.evict(TATOOINE.getId());
+
+        assertThat(planetCache.getById(TATOOINE.getId())).isNull();
+        assertThat(planetCache.getByName(TATOOINE.getName())).isNull();
+    }
+
+    @DisplayName("Teste unitário: Testa que um planeta lido antes de uma remoção não volta ao cache")
+    @Test
+    public void putLoaded_AfterConcurrentEviction_DoesNotCachePlanet() {
+        long generation = planetCache.generation();
+        planetCache.evict(TATOOINE.getId());
+
+        planetCache.putLoaded(TATOOINE, generation);
+
+        assertThat(planetCache.getById(TATOOINE.getId())).isNull();
+        assertThat(planetCache.getByName(TATOOINE.getName())).isNull();
+
+        planetCache.putLoaded(TATOOINE, planetCache.generation());
+
+        assertThat(planetCache.getById(TATOOINE.getId())).isEqualTo(TATOOINE);
+    }
+
+    @DisplayName("Teste unitário: Testa que incluir o planeta invalida os resultados negativos")
+    @Test
+    public void put_InvalidatesMisses() {
+        planetCache.putMissing(TATOOINE.getId());
+        planetCache.putMissing(TATOOINE.getName());
+        assertThat(planetCache.isMissing(TATOOINE.getId())).isTrue();
+        assertThat(planetCache.isMissing(TATOOINE.getName())).isTrue();
+
+        planetCache.put(TATOOINE);
+
+        assertThat(planetCache.isMissing(TATOOINE.getId())).isFalse();
+        assertThat(planetCache.isMissing(TATOOINE.getName())).isFalse();
+    }
+
+    @DisplayName("Teste unitário: Testa a exposição dos contadores de acerto e falha do cache")
+    @Test
+    public void lookups_AreCountedInMetrics() {
+        planetCache.put(TATOOINE);
+
+        planetCache.getById(TATOOINE.getId());
+        planetCache.getById(ALDERAAN.getId());
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "planetsById").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "planetsById").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+}
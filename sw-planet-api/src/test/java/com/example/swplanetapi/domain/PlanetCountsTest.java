@@ -0,0 +1,179 @@
+package com.example.swplanetapi.domain;
+
+import com.example.swplanetapi.domain.PlanetRepository.ClimateTerrainCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.swplanetapi.common.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetCountsTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final PlanetChangeCounter changeCounter = new PlanetChangeCounter();
+
+    private PlanetCounts counts;
+
+    @BeforeEach
+    public void beforeEach() {
+        when(planetRepository.countByClimateAndTerrain()).thenReturn(List.of(group("arid", "desert", 1),
+                group("temperate", "grass", 1), group("temperate", "tropical", 1)));
+        counts = new PlanetCounts(planetRepository, transactionManager, changeCounter);
+        counts.rebuild();
+    }
+
+    @DisplayName("Teste unitário: Testa as contagens carregadas do agrupamento sem ler os planetas")
+    @Test
+    public void stats_AfterRebuild_ReturnsGroupedCounts() {
+        var sut = counts.stats();
+
+        assertThat(sut.total()).isEqualTo(3);
+        assertThat(sut.byClimate()).isEqualTo(Map.of("arid", 1L, "temperate", 2L));
+        assertThat(sut.byTerrain()).isEqualTo(Map.of("desert", 1L, "grass", 1L, "tropical", 1L));
+        assertThat(sut.byClimateAndTerrain())
+                .isEqualTo(Map.of("arid", Map.of("desert", 1L), "temperate", Map.of("grass", 1L, "tropical", 1L)));
+        verify(planetRepository, never()).streamAll(any());
+    }
+
+    @DisplayName("Teste unitário: Testa a contagem filtrada por clima, terreno ou ambos ignorando maiúsculas")
+    @Test
+    public void count_WithFilters_MatchesListFilters() {
+        assertThat(counts.count(null, null)).isEqualTo(3);
+        assertThat(counts.count("TEMPERATE", null)).isEqualTo(2);
+        assertThat(counts.count(null, "Desert")).isEqualTo(1);
+        assertThat(counts.count("temperate", "tropical")).isEqualTo(1);
+        assertThat(counts.count("arid", "tropical")).isZero();
+        assertThat(counts.count("frozen", null)).isZero();
+    }
+
+    @DisplayName("Teste unitário: Testa que os eventos de inclusão e remoção atualizam as contagens")
+    @Test
+    public void stats_AfterCreatedAndRemovedEvents_ReflectsChanges() {
+        counts.onCreated(new PlanetCreatedEvent(new Planet(4L, "Hoth", "Frozen", "Tundra")));
+        counts.onRemoved(new PlanetRemovedEvent(TATOOINE));
+
+        var sut = counts.stats();
+
+        assertThat(sut.total()).isEqualTo(3);
+        assertThat(sut.byClimate()).isEqualTo(Map.of("frozen", 1L, "temperate", 2L));
+        assertThat(sut.byClimateAndTerrain()).doesNotContainKey("arid").containsEntry("frozen", Map.of("tundra", 1L));
+        assertThat(counts.count("frozen", "tundra")).isEqualTo(1);
+    }
+
+    @DisplayName("Teste unitário: Testa que a reconciliação substitui contagens divergentes pelas do banco e invalida as ETags")
+    @Test
+    public void rebuild_WithDriftedCounts_ReconcilesWithDatabase() {
+        counts.onCreated(new PlanetCreatedEvent(new Planet(4L, "Hoth", "frozen", "tundra")));
+        when(planetRepository.countByClimateAndTerrain()).thenReturn(List.of(group("temperate", "grass", 5)));
+        String version = changeCounter.current();
+
+        counts.rebuild();
+
+        assertThat(counts.count(null, null)).isEqualTo(5);
+        assertThat(counts.stats().byClimate()).isEqualTo(Map.of("temperate", 5L));
+        assertThat(changeCounter.current()).isNotEqualTo(version);
+    }
+
+    @DisplayName("Teste unitário: Testa que a reconciliação sem divergência mantém as ETags")
+    @Test
+    public void rebuild_WithMatchingCounts_KeepsListVersion() {
+        String version = changeCounter.current();
+
+        counts.rebuild();
+
+        assertThat(changeCounter.current()).isEqualTo(version);
+        assertThat(counts.count(null, null)).isEqualTo(3);
+    }
+
+    @DisplayName("Teste unitário: Testa que uma inclusão gravada antes da leitura da recarga não é contada duas vezes")
+    @Test
+    public void rebuild_WithWriteCommittedBeforeLoad_CountsItOnce() {
+        Planet hoth = new Planet(4L, "Hoth", "frozen", "tundra");
+        when(planetRepository.countByClimateAndTerrain()).thenAnswer(invocation -> {
+            counts.onCreated(new PlanetCreatedEvent(hoth));
+            return List.of(group("arid", "desert", 1), group("temperate", "grass", 1),
+                    group("temperate", "tropical", 1), group("frozen", "tundra", 1));
+        });
+        when(planetRepository.findAllById(List.of(4L))).thenReturn(List.of(hoth));
+        String version = changeCounter.current();
+
+        counts.rebuild();
+
+        assertThat(counts.count(null, null)).isEqualTo(4);
+        assertThat(counts.count("frozen", null)).isEqualTo(1);
+        assertThat(changeCounter.current()).isEqualTo(version);
+    }
+
+    @DisplayName("Teste unitário: Testa que uma alteração gravada depois da leitura da recarga é reaplicada")
+    @Test
+    public void rebuild_WithWriteCommittedAfterLoad_ReplaysIt() {
+        Planet renamed = new Planet(1L, "Tatooine", "temperate", "desert");
+        when(planetRepository.countByClimateAndTerrain()).thenAnswer(invocation -> {
+            counts.onRemoved(new PlanetRemovedEvent(TATOOINE));
+            counts.onCreated(new PlanetCreatedEvent(renamed));
+            return List.of(group("arid", "desert", 1), group("temperate", "grass", 1),
+                    group("temperate", "tropical", 1));
+        });
+        when(planetRepository.findAllById(List.of(1L))).thenReturn(List.of(TATOOINE));
+
+        counts.rebuild();
+
+        assertThat(counts.count(null, null)).isEqualTo(3);
+        assertThat(counts.count("temperate", null)).isEqualTo(3);
+        assertThat(counts.count("arid", null)).isZero();
+    }
+
+    @DisplayName("Teste unitário: Testa que uma mudança não rastreada recarrega as contagens uma única vez")
+    @Test
+    public void rebuildIfStale_AfterUntrackedChange_ReloadsOnce() {
+        when(planetRepository.countByClimateAndTerrain()).thenReturn(List.of(group("arid", "desert", 1)));
+
+        counts.rebuildIfStale();
+        assertThat(counts.count(null, null)).isEqualTo(3);
+
+        counts.onChangedUntracked(new PlanetsChangedUntrackedEvent());
+        counts.rebuildIfStale();
+        counts.rebuildIfStale();
+
+        assertThat(counts.count(null, null)).isEqualTo(1);
+        verify(planetRepository, times(2)).countByClimateAndTerrain();
+    }
+
+    private static ClimateTerrainCount group(String climate, String terrain, long count) {
+        return new ClimateTerrainCount() {
+            @Override
+            public String getClimate() {
+                return climate;
+            }
+
+            @Override
+            public String getTerrain() {
+                return terrain;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.swplanetapi.domain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import javax.validation.Validation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetImporterTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    @Mock
+    private PlanetCache planetCache;
+
+    @Mock
+    private PlanetNameFilter nameFilter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PlanetImporter planetImporter;
+
+    private final List<List<Planet>> insertedChunks = new ArrayList<>();
+
+    @BeforeEach
+    public void beforeEach() {
+        planetImporter = new PlanetImporter(planetRepository, planetCache, nameFilter, eventPublisher,
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, 1, false);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        planetImporter.shutdown();
+    }
+
+    @DisplayName("Teste unitário: Testa a importação em blocos ignorando inválidos e nomes existentes")
+    @Test
+    public void importAll_InsertsChunksAndSkipsInvalidAndExisting() throws Exception {
+        when(nameFilter.mightContain(any())).thenReturn(true);
+        when(planetRepository.findNamesIn(any())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).contains("Tatooine") ? List.of("Tatooine") : List.of());
+        when(planetRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Planet> chunk = invocation.getArgument(0);
+            insertedChunks.add(List.copyOf(chunk));
+            return chunk;
+        });
+        List<Planet> rows = List.of(
+                new Planet("Hoth", "frozen", "tundra"),
+                new Planet("Tatooine", "arid", "desert"),
+                new Planet("", "", ""),
+                new Planet("Dagobah", "murky", "swamp"),
+                new Planet("Dagobah", "murky", "swamp"),
+                new Planet("Naboo", "temperate", "grassy hills"),
+                new Planet("Bespin", "temperate", "gas giant"));
+
+        var sut = planetImporter.importAll(rows.iterator());
+
+        assertThat(sut.read()).isEqualTo(7);
+        assertThat(sut.inserted()).isEqualTo(4);
+        assertThat(sut.skipped()).isEqualTo(3);
+        assertThat(insertedChunks).hasSize(3);
+        assertThat(insertedChunks).flatExtracting(chunk -> chunk).extracting(Planet::getName)
+                .containsExactly("Hoth", "Dagobah", "Naboo", "Bespin");
+        verify(planetCache, times(4)).evictMisses(any());
+        verify(eventPublisher, times(4)).publishEvent(any(PlanetCreatedEvent.class));
+    }
+
+    @DisplayName("Teste unitário: Testa a importação reprocessando o bloco linha a linha quando há conflito concorrente")
+    @Test
+    public void importAll_WithConcurrentConflict_RetriesRowByRow() throws Exception {
+        when(nameFilter.mightContain(any())).thenReturn(true);
+        when(planetRepository.findNamesIn(any())).thenReturn(List.of());
+        when(planetRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Planet> chunk = invocation.getArgument(0);
+            if (chunk.size() > 1 || chunk.get(0).getName().equals("Hoth")) {
+                throw new DataIntegrityViolationException("duplicate name");
+            }
+            return chunk;
+        });
+        List<Planet> rows = List.of(new Planet("Hoth", "frozen", "tundra"), new Planet("Naboo", "temperate", "grassy hills"));
+
+        var sut = planetImporter.importAll(rows.iterator());
+
+        assertThat(sut.read()).isEqualTo(2);
+        assertThat(sut.inserted()).isEqualTo(1);
+        assertThat(sut.skipped()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.swplanetapi.domain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static com.example.swplanetapi.common.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetNameFilterTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PlanetNameFilter nameFilter;
+
+    @BeforeEach
+    public void beforeEach() {
+        when(planetRepository.streamAll(any())).thenReturn(Stream.of(TATOOINE, ALDERAAN, YAVINIV));
+        nameFilter = new PlanetNameFilter(planetRepository, transactionManager, meterRegistry, false);
+        nameFilter.rebuild();
+    }
+
+    @DisplayName("Teste unitário: Testa que o filtro reconhece os nomes existentes ignorando maiúsculas")
+    @Test
+    public void mightContain_WithExistingName_ReturnsTrue() {
+        assertThat(nameFilter.mightContain(TATOOINE.getName())).isTrue();
+        assertThat(nameFilter.mightContain(TATOOINE.getName().toUpperCase())).isTrue();
+        assertThat(nameFilter.mightContain("Hoth")).isFalse();
+    }
+
+    @DisplayName("Teste unitário: Testa que os eventos de inclusão e remoção atualizam o filtro")
+    @Test
+    public void mightContain_AfterCreatedAndRemovedEvents_ReflectsChanges() {
+        Planet hoth = new Planet(4L, "Hoth", "frozen", "tundra");
+
+        nameFilter.onCreated(new PlanetCreatedEvent(hoth));
+        nameFilter.onRemoved(new PlanetRemovedEvent(TATOOINE));
+
+        assertThat(nameFilter.mightContain("hoth")).isTrue();
+        assertThat(nameFilter.mightContain(TATOOINE.getName())).isFalse();
+        assertThat(nameFilter.mightContain(ALDERAAN.getName())).isTrue();
+    }
+
+    @DisplayName("Teste unitário: Testa a taxa de falsos positivos dentro do alvo para nomes ausentes")
+    @Test
+    public void mightContain_WithManyAbsentNames_StaysNearTargetFalsePositiveRate() {
+        LongStream.range(0, 10_000).forEach(id ->
+                nameFilter.onCreated(new PlanetCreatedEvent(new Planet(id, "planet-" + id, "arid", "desert"))));
+
+        long falsePositives = LongStream.range(0, 100_000)
+                .filter(id -> nameFilter.mightContain("absent-" + id))
+                .count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @DisplayName("Teste unitário: Testa a métrica de falsos positivos medidos")
+    @Test
+    public void recordFalsePositive_PublishesMeasuredRate() {
+        nameFilter.mightContain("Hoth");
+        nameFilter.mightContain("Dagobah");
+        nameFilter.mightContain("Bespin");
+        nameFilter.recordFalsePositive();
+
+        assertThat(meterRegistry.get("planets.name.filter.rejections").functionCounter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("planets.name.filter.false.positive.rate").gauge().value()).isEqualTo(0.25);
+    }
+
+    @DisplayName("Teste unitário: Testa que as consultas em lote contam os nomes não encontrados como falsos positivos")
+    @Test
+    public void recordFalsePositives_CountsNamesNotFoundIgnoringCase() {
+        nameFilter.mightContain("Hoth");
+
+        nameFilter.recordFalsePositives(List.of("tatooine", "Dagobah", "Bespin"), List.of("Tatooine"));
+
+        assertThat(meterRegistry.get("planets.name.filter.false.positives").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("planets.name.filter.false.positive.rate").gauge().value()).isEqualTo(2.0 / 3);
+    }
+}
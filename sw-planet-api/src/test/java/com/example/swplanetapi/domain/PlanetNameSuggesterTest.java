@@ -0,0 +1,59 @@
+package com.example.swplanetapi.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static com.example.swplanetapi.common.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetNameSuggesterTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PlanetNameSuggester nameSuggester;
+
+    @BeforeEach
+    public void beforeEach() {
+        when(planetRepository.streamAll(any())).thenReturn(Stream.of(YAVINIV, TATOOINE, ALDERAAN,
+                new Planet(4L, "Taris", "temperate", "urban"), new Planet(5L, "tatooine II", "arid", "desert")));
+        nameSuggester = new PlanetNameSuggester(planetRepository, transactionManager);
+        nameSuggester.rebuild();
+    }
+
+    @DisplayName("Teste unitário: Testa a sugestão por prefixo ignorando maiúsculas em ordem alfabética")
+    @Test
+    public void suggest_ByPrefix_ReturnsNamesInOrderIgnoringCase() {
+        assertThat(nameSuggester.suggest("TA", 10)).containsExactly("Taris", "Tatooine", "tatooine II");
+        assertThat(nameSuggester.suggest("tat", 1)).containsExactly("Tatooine");
+        assertThat(nameSuggester.suggest("hoth", 10)).isEmpty();
+    }
+
+    @DisplayName("Teste unitário: Testa que os eventos de inclusão e remoção atualizam as sugestões")
+    @Test
+    public void suggest_AfterCreatedAndRemovedEvents_ReflectsChanges() {
+        nameSuggester.onCreated(new PlanetCreatedEvent(new Planet(6L, "Tatou", "arid", "desert")));
+        nameSuggester.onRemoved(new PlanetRemovedEvent(TATOOINE));
+        nameSuggester.onCreated(new PlanetCreatedEvent(ALDERAAN));
+
+        assertThat(nameSuggester.suggest("ta", 10)).containsExactly("Taris", "tatooine II", "Tatou");
+        assertThat(nameSuggester.suggest("al", 10)).containsExactly(ALDERAAN.getName());
+
+        nameSuggester.onCreated(new PlanetCreatedEvent(TATOOINE));
+
+        assertThat(nameSuggester.suggest("tatoo", 10)).containsExactly("Tatooine", "tatooine II");
+    }
+}
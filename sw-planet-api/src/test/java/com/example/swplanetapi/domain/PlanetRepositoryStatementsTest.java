@@ -0,0 +1,99 @@
+package com.example.swplanetapi.domain;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Example;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statement and entity counts only; timings are measured by PlanetRepositoryBenchmark under -Pjmh.
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(value = {"/remove_planets.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PlanetRepositoryStatementsTest {
+
+    private static final int BATCH_PLANETS = 10_000;
+    private static final int LOOKUP_IDS = 100;
+
+    @Autowired
+    private PlanetRepository planetRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @DisplayName("Teste de integração: Testa a inserção de 10 mil planetas em lotes JDBC")
+    @Test
+    public void insertAll_TenThousandPlanets_RunsInBatches() {
+        planetRepository.insertAll(planets("planet", BATCH_PLANETS));
+
+        assertThat(planetRepository.count()).isEqualTo(BATCH_PLANETS);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(BATCH_PLANETS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(BATCH_PLANETS / 10);
+    }
+
+    @DisplayName("Teste de integração: Testa que buscar 100 ids executa uma única consulta em vez de 100")
+    @Test
+    public void findAllById_HundredIds_RunsOneStatement() {
+        List<Long> ids = planetRepository.insertAll(planets("lookup", LOOKUP_IDS)).stream().map(Planet::getId).toList();
+        statistics.clear();
+
+        ids.forEach(planetRepository::findById);
+        long singleStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        assertThat(planetRepository.findAllById(ids)).hasSize(LOOKUP_IDS);
+        assertThat(singleStatements).isEqualTo(LOOKUP_IDS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @DisplayName("Teste de integração: Testa que a projeção de id e nome não carrega entidades")
+    @Test
+    public void findProjectedAfter_IdAndName_LoadsNoEntities() {
+        planetRepository.insertAll(planets("projection", BATCH_PLANETS));
+        Example<Planet> query = QueryBuilder.makeQuery(new Planet());
+        Set<PlanetField> fields = EnumSet.of(PlanetField.ID, PlanetField.NAME);
+        statistics.clear();
+
+        assertThat(planetRepository.findAll(query)).hasSize(BATCH_PLANETS);
+        long entityLoads = statistics.getEntityLoadCount();
+        statistics.clear();
+
+        var sut = planetRepository.findProjectedAfter(query, fields, null, null);
+
+        assertThat(sut).hasSize(BATCH_PLANETS);
+        assertThat(sut).extracting(PlanetProjection::climate).containsOnlyNulls();
+        assertThat(entityLoads).isEqualTo(BATCH_PLANETS);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static List<Planet> planets(String prefix, int count) {
+        List<Planet> planets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            planets.add(new Planet(prefix + "-" + i, "climate-" + (i % 7), "terrain-" + (i % 11)));
+        }
+        return planets;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.swplanetapi.domain;
 
+import com.example.swplanetapi.timing.RequestTiming;
 import org.junit.jupiter.api.AfterEach;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -13,13 +16,20 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Example;
 import org.springframework.test.context.jdbc.Sql;
 
+import javax.persistence.Query;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.example.swplanetapi.common.PlanetConstants.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.swplanetapi.domain.PlanetRepositoryTest$CapturedSql")
 public class PlanetRepositoryTest {
 
     @Autowired
@@ -28,6 +38,8 @@ public class PlanetRepositoryTest {
     @Autowired
     private TestEntityManager entityManager;
 
+    private RequestTiming timing;
+
     @AfterEach
     public void afterEach() {
         PLANET.setId(null);
@@ -51,8 +63,8 @@ public class PlanetRepositoryTest {
     @Test
     public void createPlanet_WithInvalidData_ThrowException() {
 
-        assertThatThrownBy(() -> planetRepository.save(EMPTY_PLANET)).isInstanceOf(RuntimeException.class);
-        assertThatThrownBy(() -> planetRepository.save(INVALID_PLANET)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> saveAndFlush(EMPTY_PLANET)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> saveAndFlush(INVALID_PLANET)).isInstanceOf(RuntimeException.class);
 
     }
     @DisplayName("Teste Parametrizado: Testa o metodo que lança uma exceção quando o planeta é inválido parametrizandos os dados")
@@ -60,7 +72,7 @@ public class PlanetRepositoryTest {
     @MethodSource("providersInvalidPlanets")
     public void createPlanet_WithInvalidData_ThrowException_TestParameterized(Planet planetParameterized) {
 
-        assertThatThrownBy(() -> planetRepository.save(planetParameterized)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> saveAndFlush(planetParameterized)).isInstanceOf(RuntimeException.class);
     }
 
     private static Stream<Arguments> providersInvalidPlanets(){
@@ -86,7 +98,7 @@ public class PlanetRepositoryTest {
         entityManager.detach(sut);
         sut.setId(null);
 
-        assertThatThrownBy(() -> planetRepository.save(sut)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> saveAndFlush(sut)).isInstanceOf(RuntimeException.class);
 
     }
 
@@ -101,6 +113,15 @@ public class PlanetRepositoryTest {
 
     }
 
+    @DisplayName("Teste de integração: Testa a leitura apenas da versão de um planeta")
+    @Test
+    public void getVersion_ByExistingId_ReturnsVersionOnly() {
+        var sut = entityManager.persistFlushFind(new Planet("Hoth", "frozen", "tundra"));
+
+        assertThat(planetRepository.findVersionById(sut.getId())).contains(0L);
+        assertThat(planetRepository.findVersionById(-1L)).isEmpty();
+    }
+
     @DisplayName("Teste de integração: Testa a busca por id e retorna vazio")
     @Test
     public void getPlanet_ByUnexistingId_ReturnsEmpty() {
@@ -150,6 +171,80 @@ public class PlanetRepositoryTest {
 
     }
 
+    @DisplayName("Teste de integração: Testa a paginação por cursor respeitando os filtros")
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void listPlanets_AfterCursor_ReturnsNextPage() {
+        Example<Planet> queryWithoutFilters = QueryBuilder.makeQuery(new Planet());
+        Example<Planet> queryWithFilters = QueryBuilder.makeQuery(new Planet("TEMPERATE", null));
+
+        var firstPage = planetRepository.findAllAfter(queryWithoutFilters, null, 2);
+        var secondPage = planetRepository.findAllAfter(queryWithoutFilters, firstPage.get(1).getId(), 2);
+        var filteredPage = planetRepository.findAllAfter(queryWithFilters, ALDERAAN.getId(), 2);
+
+        assertThat(firstPage).extracting(Planet::getId).containsExactly(TATOOINE.getId(), ALDERAAN.getId());
+        assertThat(secondPage).extracting(Planet::getId).containsExactly(YAVINIV.getId());
+        assertThat(filteredPage).extracting(Planet::getId).containsExactly(YAVINIV.getId());
+    }
+
+    @DisplayName("Teste de integração: Testa a contagem agrupada por clima e terreno em minúsculas")
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void countByClimateAndTerrain_ReturnsOneRowPerLowerCasedPair() {
+        entityManager.persistAndFlush(new Planet("Hoth", "TEMPERATE", "Grass"));
+
+        var sut = planetRepository.countByClimateAndTerrain();
+
+        assertThat(sut).extracting(group -> group.getClimate() + "/" + group.getTerrain() + "=" + group.getCount())
+                .containsExactlyInAnyOrder("arid/desert=1", "temperate/grass=2", "temperate/tropical=1");
+    }
+
+    @DisplayName("Teste de integração: Testa a projeção trazendo apenas as colunas pedidas sem entidades gerenciadas")
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void findProjectedPlanets_ReturnsOnlySelectedFields() {
+        Example<Planet> queryWithFilters = QueryBuilder.makeQuery(new Planet("temperate", null));
+
+        var sut = planetRepository.findProjectedAfter(queryWithFilters, EnumSet.of(PlanetField.ID, PlanetField.NAME), null, null);
+        var page = planetRepository.findProjectedAfter(queryWithFilters, EnumSet.of(PlanetField.ID), null, 1);
+
+        assertThat(sut).extracting(PlanetProjection::id).containsExactly(ALDERAAN.getId(), YAVINIV.getId());
+        assertThat(sut).extracting(PlanetProjection::name).doesNotContainNull();
+        assertThat(sut).extracting(PlanetProjection::climate).containsOnlyNulls();
+        assertThat(sut).extracting(PlanetProjection::terrain).containsOnlyNulls();
+        assertThat(page).extracting(PlanetProjection::id).containsExactly(ALDERAAN.getId());
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @DisplayName("Teste de integração: Testa o stream de planetas desanexando cada entidade do contexto")
+    @Sql(scripts = "/import_planets.sql")
+    @Test
+    public void streamPlanets_ReturnsDetachedPlanets() {
+        Example<Planet> queryWithFilters = QueryBuilder.makeQuery(new Planet("temperate", null));
+
+        List<Planet> sut;
+        try (Stream<Planet> planets = planetRepository.streamAll(queryWithFilters)) {
+            sut = planets.collect(Collectors.toList());
+        }
+
+        assertThat(sut).extracting(Planet::getId).containsExactly(ALDERAAN.getId(), YAVINIV.getId());
+        assertThat(sut).noneMatch(entityManager.getEntityManager()::contains);
+    }
+
+    @DisplayName("Teste de integração: Testa que os filtros de clima e terreno gerados pelo Hibernate usam índices em vez de varrer a tabela")
+    @Test
+    public void listPlanets_FilterQueries_UseIndexes() {
+        String byClimateAndTerrain = generatedSql(() -> planetRepository.findAll(QueryBuilder.makeQuery(new Planet("Arid", "Desert"))));
+        String byClimate = generatedSql(() -> planetRepository.findAll(QueryBuilder.makeQuery(new Planet("Arid", null))));
+        String byTerrain = generatedSql(() -> planetRepository.findAll(QueryBuilder.makeQuery(new Planet(null, "Desert"))));
+
+        assertThat(byClimateAndTerrain).contains("climate_key=?").contains("terrain_key=?").doesNotContainIgnoringCase("lower(");
+        assertThat(explain(byClimateAndTerrain, "arid", "desert")).containsIgnoringCase("idx_planets_climate_terrain");
+        assertThat(explain(byClimate, "arid")).containsIgnoringCase("idx_planets_climate_terrain");
+        assertThat(explain(byTerrain, "desert")).containsIgnoringCase("idx_planets_terrain");
+        assertThat(explain("SELECT * FROM planets WHERE lower(climate) = ?", "arid")).containsIgnoringCase("tableScan");
+    }
+
     @DisplayName("Teste de integração: Testa a busca por filtros retornando vazio")
     @Test
     public void listPlanets_ReturnsNoPlanets() {
@@ -181,4 +276,148 @@ public class PlanetRepositoryTest {
 
     }
 
+    @DisplayName("Teste de integração: Testa a remoção por id em um único comando informando se o planeta existia")
+    @Test
+    public void deleteReturningCount_ExecutesOneStatement() {
+        var sut = entityManager.persistFlushFind(new Planet("Hoth", "frozen", "tundra"));
+
+        assertThat(timed(() -> planetRepository.deleteReturningCount(sut.getId()))).isEqualTo(1);
+        assertThat(timing.getStatements()).isEqualTo(1);
+        assertThat(timed(() -> planetRepository.deleteReturningCount(sut.getId()))).isZero();
+        assertThat(timing.getStatements()).isEqualTo(1);
+    }
+
+    @DisplayName("Teste de integração: Testa a remoção por lista de ids em um único comando")
+    @Test
+    public void deleteAllReturningCount_ExecutesOneStatement() {
+        var hoth = entityManager.persistFlushFind(new Planet("Hoth", "frozen", "tundra"));
+        var endor = entityManager.persistFlushFind(new Planet("Endor", "temperate", "forests"));
+
+        assertThat(timed(() -> planetRepository.deleteAllReturningCount(List.of(hoth.getId(), endor.getId(), -1L))))
+                .isEqualTo(2);
+        assertThat(timing.getStatements()).isEqualTo(1);
+    }
+
+    @DisplayName("Teste de integração: Testa a remoção por filtro ignorando maiúsculas em um único comando")
+    @Test
+    public void deleteAllMatching_ExecutesOneStatement() {
+        entityManager.persist(new Planet("Hoth", "Frozen", "tundra"));
+        entityManager.persist(new Planet("Ilum", "frozen", "ice"));
+        entityManager.persistAndFlush(new Planet("Endor", "temperate", "forests"));
+
+        assertThat(timed(() -> planetRepository.deleteAllMatching(QueryBuilder.makeQuery(new Planet("FROZEN", null)))))
+                .isEqualTo(2);
+        assertThat(timing.getStatements()).isEqualTo(1);
+        assertThat(planetRepository.count()).isEqualTo(1);
+    }
+
+    @DisplayName("Teste de integração: Testa o upsert por nome inserindo e depois atualizando com um comando cada")
+    @Test
+    public void upsertByName_InsertsThenUpdates_WithOneStatementEach() {
+        long sequence = sequenceValue();
+        PlanetUpsert inserted = timed(() -> planetRepository.upsertByName(new Planet("Hoth", "frozen", "tundra")));
+        assertThat(timing.getStatements() - sequenceCalls(sequence)).isEqualTo(1);
+
+        sequence = sequenceValue();
+        PlanetUpsert updated = timed(() -> planetRepository.upsertByName(new Planet("Hoth", "frozen", "ice")));
+        assertThat(timing.getStatements() - sequenceCalls(sequence)).isEqualTo(1);
+
+        assertThat(inserted.created()).isTrue();
+        assertThat(updated.created()).isFalse();
+        assertThat(updated.planet().getId()).isEqualTo(inserted.planet().getId());
+        assertThat(planetRepository.findById(inserted.planet().getId())).get()
+                .extracting(Planet::getTerrain, Planet::getVersion).containsExactly("ice", 1L);
+    }
+
+    @DisplayName("Teste de integração: Testa a atualização condicional pela versão em um único comando sem ler o planeta")
+    @Test
+    public void updateIfVersion_WithCurrentVersion_ExecutesOneStatement() {
+        var sut = entityManager.persistFlushFind(new Planet("Hoth", "frozen", "tundra"));
+        entityManager.clear();
+
+        assertThat(timed(() -> planetRepository.updateIfVersion(sut.getId(), 0L, new Planet(null, null, "ice"))))
+                .isEqualTo(1);
+        assertThat(timing.getStatements()).isEqualTo(1);
+
+        assertThat(entityManager.find(Planet.class, sut.getId()))
+                .extracting(Planet::getName, Planet::getClimate, Planet::getTerrain, Planet::getVersion)
+                .containsExactly("Hoth", "frozen", "ice", 1L);
+    }
+
+    @DisplayName("Teste de integração: Testa que a atualização condicional com uma versão antiga não altera nada")
+    @Test
+    public void updateIfVersion_WithStaleVersion_UpdatesNothing() {
+        var sut = entityManager.persistFlushFind(new Planet("Hoth", "frozen", "tundra"));
+        entityManager.clear();
+
+        assertThat(planetRepository.updateIfVersion(sut.getId(), 7L, new Planet(null, null, "ice"))).isZero();
+        assertThat(planetRepository.updateIfVersion(-1L, 0L, new Planet(null, null, "ice"))).isZero();
+
+        assertThat(entityManager.find(Planet.class, sut.getId()))
+                .extracting(Planet::getTerrain, Planet::getVersion).containsExactly("tundra", 0L);
+    }
+
+    @DisplayName("Teste de integração: Testa a atualização lendo o planeta e incrementando a versão")
+    @Test
+    public void updateById_WithExistingPlanet_BumpsVersion() {
+        var sut = entityManager.persistFlushFind(new Planet("Hoth", "frozen", "tundra"));
+
+        assertThat(planetRepository.updateById(sut.getId(), new Planet("Ilum", null, null))).get()
+                .extracting(Planet::getName, Planet::getTerrain, Planet::getVersion)
+                .containsExactly("Ilum", "tundra", 1L);
+        assertThat(planetRepository.updateById(-1L, new Planet("Ilum", null, null))).isEmpty();
+    }
+
+    private <T> T timed(Supplier<T> work) {
+        timing = RequestTiming.start();
+        try {
+            return work.get();
+        } finally {
+            RequestTiming.clear();
+        }
+    }
+
+    // Statements the pooled id generator spent refilling its range; each call moves the sequence by a full allocation.
+    private long sequenceCalls(long before) {
+        return (sequenceValue() - before) / 50;
+    }
+
+    private long sequenceValue() {
+        return ((Number) entityManager.getEntityManager()
+                .createNativeQuery("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'PLANETS_SEQ'")
+                .getSingleResult()).longValue();
+    }
+
+    private String explain(String sql, Object... parameters) {
+        Query explain = entityManager.getEntityManager().createNativeQuery("EXPLAIN " + sql);
+        for (int i = 0; i < parameters.length; i++) {
+            explain.setParameter(i + 1, parameters[i]);
+        }
+        return (String) explain.getSingleResult();
+    }
+
+    // The single statement Hibernate sent for the work, as captured by the statement inspector.
+    private String generatedSql(Runnable work) {
+        CapturedSql.statements.clear();
+        work.run();
+        assertThat(CapturedSql.statements).hasSize(1);
+        return CapturedSql.statements.get(0);
+    }
+
+    public static class CapturedSql implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    // Sequence ids defer the INSERT to flush time, which is when constraint violations surface.
+    private void saveAndFlush(Planet planet) {
+        planetRepository.save(planet);
+        entityManager.flush();
+    }
+
 }
@@ -0,0 +1,98 @@
+package com.example.swplanetapi.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static com.example.swplanetapi.common.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetSearchIndexTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PlanetSearchIndex searchIndex;
+
+    @BeforeEach
+    public void beforeEach() {
+        when(planetRepository.streamAll(any())).thenReturn(Stream.of(TATOOINE, ALDERAAN, YAVINIV));
+        searchIndex = new PlanetSearchIndex(planetRepository, transactionManager);
+        searchIndex.rebuild();
+    }
+
+    @DisplayName("Teste unitário: Testa a busca por trecho de clima ignorando maiúsculas")
+    @Test
+    public void search_ByClimateSubstring_ReturnsMatchingPlanets() {
+        var sut = searchIndex.search(null, "EMPER", null, 10);
+
+        assertThat(sut).containsExactly(ALDERAAN, YAVINIV);
+    }
+
+    @DisplayName("Teste unitário: Testa a busca combinando nome, clima e terreno")
+    @Test
+    public void search_ByAllFields_ReturnsOnlyPlanetMatchingEveryTerm() {
+        var sut = searchIndex.search("yav", "temperate", "trop", 10);
+
+        assertThat(sut).containsExactly(YAVINIV);
+    }
+
+    @DisplayName("Teste unitário: Testa a busca com termo menor que um trigrama verificando todos os planetas")
+    @Test
+    public void search_WithShortTerm_ScansAllPlanets() {
+        assertThat(searchIndex.search(null, null, "s", 10)).containsExactly(TATOOINE, ALDERAAN);
+        assertThat(searchIndex.search(null, null, null, 2)).containsExactly(TATOOINE, ALDERAAN);
+    }
+
+    @DisplayName("Teste unitário: Testa a busca sem planetas correspondentes retornando lista vazia")
+    @Test
+    public void search_WithUnknownTerm_ReturnsNoPlanets() {
+        assertThat(searchIndex.search(null, "frozen", null, 10)).isEmpty();
+        assertThat(searchIndex.search("tatooinex", null, null, 10)).isEmpty();
+    }
+
+    @DisplayName("Teste unitário: Testa que os eventos de inclusão e remoção atualizam o índice")
+    @Test
+    public void search_AfterCreatedAndRemovedEvents_ReflectsChanges() {
+        Planet hoth = new Planet(4L, "Hoth", "frozen", "tundra");
+
+        searchIndex.onCreated(new PlanetCreatedEvent(hoth));
+        searchIndex.onRemoved(new PlanetRemovedEvent(TATOOINE));
+
+        assertThat(searchIndex.search(null, "froz", null, 10)).containsExactly(hoth);
+        assertThat(searchIndex.search("tatoo", null, null, 10)).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(3);
+        assertThat(searchIndex.get(TATOOINE.getId())).isEmpty();
+        assertThat(searchIndex.get(hoth.getId())).contains(hoth);
+    }
+
+    @DisplayName("Teste unitário: Testa que muitas atualizações compactam o índice em vez de acumular ordinais mortos")
+    @Test
+    public void add_WithManyUpdates_DoesNotGrowOrdinals() {
+        for (int i = 0; i < 100_000; i++) {
+            Planet previous = searchIndex.get(TATOOINE.getId()).orElseThrow();
+            Planet renamed = new Planet(TATOOINE.getId(), "Tatooine " + i, "arid", "desert");
+            searchIndex.onRemoved(new PlanetRemovedEvent(previous));
+            searchIndex.onCreated(new PlanetCreatedEvent(renamed));
+        }
+
+        assertThat(searchIndex.ordinals()).isLessThanOrEqualTo(1024);
+        assertThat(searchIndex.size()).isEqualTo(3);
+        assertThat(searchIndex.search("tatooine 99999", null, null, 10)).extracting(Planet::getName)
+                .containsExactly("Tatooine 99999");
+        assertThat(searchIndex.search("tatooine 9999", null, null, 10)).hasSize(1);
+        assertThat(searchIndex.search(null, "temperate", null, 10)).containsExactly(ALDERAAN, YAVINIV);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.swplanetapi.domain;
+
+import com.example.swplanetapi.timing.RequestTiming;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.example.swplanetapi.domain.PlanetServiceTest.CONCURRENT_REQUESTS;
+import static com.example.swplanetapi.domain.PlanetServiceTest.runConcurrently;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false)
+@Import({PlanetService.class, PlanetCache.class, PlanetSearchIndex.class, PlanetNameSuggester.class,
+        PlanetNameFilter.class, PlanetChangeCounter.class, PlanetCounts.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(value = {"/import_planets.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/remove_planets.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PlanetServiceCoalescingTest {
+
+    @Autowired
+    private PlanetService planetService;
+
+    @DisplayName("Teste de integração: Testa que buscas concorrentes pelo mesmo id executam um único comando SQL")
+    @Test
+    public void getPlanet_ConcurrentlyBySameId_ExecutesOneStatement() throws Exception {
+        CountDownLatch followersJoined = new CountDownLatch(CONCURRENT_REQUESTS - 1);
+        ReflectionTestUtils.setField(planetService, "loadsById", leaderWaitingFor(followersJoined));
+        AtomicInteger statements = new AtomicInteger();
+
+        var sut = runConcurrently(() -> {
+            RequestTiming timing = RequestTiming.start();
+            try {
+                return planetService.get(1L);
+            } finally {
+                statements.addAndGet(timing.getStatements());
+                RequestTiming.clear();
+            }
+        });
+
+        assertThat(sut).allMatch(planet -> planet.map(Planet::getName).equals(Optional.of("Tatooine")));
+        assertThat(statements.get()).isEqualTo(1);
+    }
+
+    // Holds the leader's query until every other caller has joined it, so none can start a second one.
+    private static <K> SingleFlight<K, Optional<Planet>> leaderWaitingFor(CountDownLatch followersJoined) {
+        return new SingleFlight<>() {
+            @Override
+            public Optional<Planet> load(K key, Supplier<Optional<Planet>> loader) {
+                return super.load(key, () -> {
+                    try {
+                        assertThat(followersJoined.await(10, TimeUnit.SECONDS)).isTrue();
+                    } catch (InterruptedException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                    return loader.get();
+                });
+            }
+
+            @Override
+            protected void joined(K key) {
+                followersJoined.countDown();
+            }
+        };
+    }
+}
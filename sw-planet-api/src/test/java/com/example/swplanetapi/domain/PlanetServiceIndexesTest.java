@@ -0,0 +1,88 @@
+package com.example.swplanetapi.domain;
+
+import com.example.swplanetapi.timing.RequestTiming;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false)
+@Import({PlanetService.class, PlanetCache.class, PlanetSearchIndex.class, PlanetNameSuggester.class,
+        PlanetNameFilter.class, PlanetChangeCounter.class, PlanetCounts.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(value = {"/import_planets.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/remove_planets.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PlanetServiceIndexesTest {
+
+    @Autowired
+    private PlanetService planetService;
+
+    @Autowired
+    private PlanetSearchIndex searchIndex;
+
+    @Autowired
+    private PlanetCounts counts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Hoth is written behind the service's back: the counts reconcile picks it up, the search index does not.
+    @BeforeEach
+    public void beforeEach() {
+        searchIndex.rebuild();
+        jdbcTemplate.update("INSERT INTO planets (id, name, climate, terrain) VALUES (4, 'Hoth', 'frozen', 'tundra')");
+        counts.rebuild();
+    }
+
+    @DisplayName("Teste de integração: Testa que atualizar pela versão um planeta fora do índice não o conta de novo")
+    @Test
+    public void updatePlanet_WithCurrentVersionNotIndexed_KeepsCount() {
+        assertThat(planetService.update(4L, 0L, new Planet(null, "temperate", null))).contains(1L);
+
+        assertThat(planetService.count(null, null)).isEqualTo(4);
+
+        counts.rebuildIfStale();
+
+        assertThat(planetService.count(null, null)).isEqualTo(4);
+        assertThat(planetService.count(null, "temperate")).isEqualTo(3);
+    }
+
+    @DisplayName("Teste de integração: Testa que o upsert de um planeta fora do índice não o conta de novo")
+    @Test
+    public void upsertPlanet_WithExistingNameNotIndexed_KeepsCount() {
+        assertThat(planetService.upsert(new Planet("Hoth", "temperate", "tundra")).created()).isFalse();
+
+        assertThat(planetService.count(null, null)).isEqualTo(4);
+
+        counts.rebuildIfStale();
+
+        assertThat(planetService.count(null, null)).isEqualTo(4);
+        assertThat(planetService.count(null, "temperate")).isEqualTo(3);
+    }
+
+    @DisplayName("Teste de integração: Testa que remover um planeta fora do índice executa um único comando e o desconta")
+    @Test
+    public void removePlanet_NotIndexed_ExecutesOneStatementAndUpdatesCount() {
+        RequestTiming timing = RequestTiming.start();
+        try {
+            assertThat(planetService.remove(4L)).isTrue();
+            assertThat(planetService.remove(99L)).isFalse();
+            assertThat(timing.getStatements()).isEqualTo(2);
+        } finally {
+            RequestTiming.clear();
+        }
+
+        counts.rebuildIfStale();
+
+        assertThat(planetService.count(null, null)).isEqualTo(3);
+    }
+}
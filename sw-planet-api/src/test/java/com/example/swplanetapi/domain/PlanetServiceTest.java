@@ -6,28 +6,65 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
-import static com.example.swplanetapi.common.PlanetConstants.INVALID_PLANET;
-import static com.example.swplanetapi.common.PlanetConstants.PLANET;
+import static com.example.swplanetapi.common.PlanetConstants.*;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class PlanetServiceTest {
 
+    static final int CONCURRENT_REQUESTS = 50;
+
     @InjectMocks
     private PlanetService planetService;
 
     @Mock
     private PlanetRepository planetRepository;
 
+    @Mock
+    private PlanetCache planetCache;
+
+    @Mock
+    private PlanetSearchIndex searchIndex;
+
+    @Mock
+    private PlanetNameSuggester nameSuggester;
+
+    @Mock
+    private PlanetNameFilter nameFilter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlanetCounts counts;
+
     @DisplayName("Teste unitário: Testa a criação planetas com dados validos retornando planets ")
     @Test
     public void createPlanet_WithValidData_ReturnsPlanet() {
@@ -38,6 +75,20 @@ public class PlanetServiceTest {
         assertThat(sut).isEqualTo(PLANET);
     }
 
+    @DisplayName("Teste unitário: Testa a criação de planeta com id informado salvando-o sem o id")
+    @Test
+    public void createPlanet_WithId_SavesWithoutId() {
+        Planet planet = new Planet(42L, "Hoth", "frozen", "tundra");
+        when(planetRepository.save(any(Planet.class))).thenAnswer(invocation -> {
+            assertThat(invocation.<Planet>getArgument(0).getId()).isNull();
+            return new Planet(1L, "Hoth", "frozen", "tundra");
+        });
+
+        var sut = planetService.create(planet);
+
+        assertThat(sut.getId()).isEqualTo(1L);
+    }
+
     @DisplayName("Teste unitário: Testa a criação planetas com dados invalidos lança exceção")
     @Test
     public void createPlanet_WithInvalidData_ThrowsException() {
@@ -45,6 +96,37 @@ public class PlanetServiceTest {
 
         assertThatThrownBy(() -> planetService.create(INVALID_PLANET)).isInstanceOf(RuntimeException.class);
     }
+
+    @DisplayName("Teste unitário: Testa a criação de planetas em lote inserindo todos de uma vez")
+    @Test
+    public void createPlanets_WithNewNames_InsertsAll() {
+        when(nameFilter.mightContain(any())).thenReturn(true);
+        List<Planet> planets = List.of(new Planet("Hoth", "frozen", "tundra"), new Planet("Dagobah", "murky", "swamp"));
+        when(planetRepository.findNamesIn(any())).thenReturn(Collections.emptyList());
+        when(planetRepository.insertAll(planets)).thenReturn(planets);
+
+        var sut = planetService.createAll(planets);
+
+        assertThat(sut).isEqualTo(planets);
+        verify(planetCache).evictMisses(planets.get(0));
+        verify(planetCache).evictMisses(planets.get(1));
+        verify(nameFilter).recordFalsePositives(List.of("Hoth", "Dagobah"), Collections.emptyList());
+    }
+
+    @DisplayName("Teste unitário: Testa a criação de planetas em lote informando nomes existentes ou repetidos")
+    @Test
+    public void createPlanets_WithConflictingNames_ThrowsExceptionWithNames() {
+        when(nameFilter.mightContain(any())).thenReturn(true);
+        List<Planet> planets = List.of(new Planet("Hoth", "frozen", "tundra"), new Planet("Hoth", "frozen", "tundra"),
+                new Planet("Naboo", "temperate", "grassy hills"));
+        when(planetRepository.findNamesIn(any())).thenReturn(List.of("Naboo"));
+
+        assertThatThrownBy(() -> planetService.createAll(planets))
+                .isInstanceOfSatisfying(PlanetNameConflictException.class,
+                        ex -> assertThat(ex.getNames()).containsExactly("Hoth", "Naboo"));
+        verify(planetRepository, never()).insertAll(any());
+    }
+
     @DisplayName("Teste unitário: Testa a criação planetas com id existente retorna planet")
     @Test
     public void getPlanet_ByExistingId_ReturnsPlanet() {
@@ -55,6 +137,7 @@ public class PlanetServiceTest {
         assertThat(sut).isNotEmpty();
         assertThat(sut.get()).isEqualTo(PLANET);
     }
+
     @DisplayName("Teste unitário: Testa a criação planetas com id inexistente retorna vazio")
     @Test
     public void getPlanet_ByUnexistingId_ReturnsEmpty() {
@@ -64,9 +147,11 @@ public class PlanetServiceTest {
 
         assertThat(sut).isEmpty();
     }
+
     @DisplayName("Teste unitário: Testa a criação planetas com nome existente retorna planeta")
     @Test
     public void getPlanet_ByExistingName_ReturnsPlanet() {
+        when(nameFilter.mightContain(any())).thenReturn(true);
         when(planetRepository.findByName(PLANET.getName())).thenReturn(Optional.of(PLANET));
 
         var sut = planetService.getByName(PLANET.getName());
@@ -74,9 +159,11 @@ public class PlanetServiceTest {
         assertThat(sut).isNotEmpty();
         assertThat(sut.get()).isEqualTo(PLANET);
     }
+
     @DisplayName("Teste unitário: Testa a criação planetas com nome inexistente retorna vazio")
     @Test
     public void getPlanet_ByUnexistingName_ReturnsEmpty() {
+        when(nameFilter.mightContain(any())).thenReturn(true);
         final String name = "Unexisting name";
         when(planetRepository.findByName(name)).thenReturn(Optional.empty());
 
@@ -84,6 +171,102 @@ public class PlanetServiceTest {
 
         assertThat(sut).isEmpty();
     }
+
+    @DisplayName("Teste unitário: Testa a busca por id servida pelo cache sem acessar o repositório")
+    @Test
+    public void getPlanet_ByCachedId_DoesNotQueryRepository() {
+        when(planetCache.getById(1L)).thenReturn(TATOOINE);
+
+        var sut = planetService.get(1L);
+
+        assertThat(sut).contains(TATOOINE);
+        verifyNoInteractions(planetRepository);
+    }
+
+    @DisplayName("Teste unitário: Testa a busca por nome inexistente guardando o resultado negativo")
+    @Test
+    public void getPlanet_ByUnexistingName_CachesMiss() {
+        when(nameFilter.mightContain(any())).thenReturn(true);
+        when(planetRepository.findByName("Unexisting name")).thenReturn(Optional.empty());
+
+        planetService.getByName("Unexisting name");
+
+        verify(planetCache).putMissing("Unexisting name");
+        verify(planetCache, never()).putLoaded(any(), anyLong());
+    }
+
+    @DisplayName("Teste unitário: Testa a busca por nome com resultado negativo em cache sem acessar o repositório")
+    @Test
+    public void getPlanet_ByCachedMissingName_DoesNotQueryRepository() {
+        when(planetCache.isMissing("Unexisting name")).thenReturn(true);
+
+        var sut = planetService.getByName("Unexisting name");
+
+        assertThat(sut).isEmpty();
+        verifyNoInteractions(planetRepository);
+    }
+
+    @DisplayName("Teste unitário: Testa que buscas concorrentes pelo mesmo id executam uma única consulta")
+    @Test
+    public void getPlanet_ConcurrentlyBySameId_QueriesRepositoryOnce() throws Exception {
+        CountDownLatch followersJoined = new CountDownLatch(CONCURRENT_REQUESTS - 1);
+        ReflectionTestUtils.setField(planetService, "loadsById", countingJoins(followersJoined));
+        when(planetRepository.findById(1L)).thenAnswer(invocation -> {
+            assertThat(followersJoined.await(10, TimeUnit.SECONDS)).isTrue();
+            return Optional.of(TATOOINE);
+        });
+
+        var sut = runConcurrently(() -> planetService.get(1L));
+
+        assertThat(sut).allMatch(planet -> planet.equals(Optional.of(TATOOINE)));
+        verify(planetRepository, times(1)).findById(1L);
+    }
+
+    @DisplayName("Teste unitário: Testa que buscas concorrentes pelo mesmo nome executam uma única consulta")
+    @Test
+    public void getPlanet_ConcurrentlyBySameName_QueriesRepositoryOnce() throws Exception {
+        when(nameFilter.mightContain(any())).thenReturn(true);
+        CountDownLatch followersJoined = new CountDownLatch(CONCURRENT_REQUESTS - 1);
+        ReflectionTestUtils.setField(planetService, "loadsByName", countingJoins(followersJoined));
+        when(planetRepository.findByName(TATOOINE.getName())).thenAnswer(invocation -> {
+            assertThat(followersJoined.await(10, TimeUnit.SECONDS)).isTrue();
+            return Optional.of(TATOOINE);
+        });
+
+        var sut = runConcurrently(() -> planetService.getByName(TATOOINE.getName()));
+
+        assertThat(sut).allMatch(planet -> planet.equals(Optional.of(TATOOINE)));
+        verify(planetRepository, times(1)).findByName(TATOOINE.getName());
+    }
+
+    // The leader's load waits on the latch, so every other caller has joined it before it returns.
+    static <K> SingleFlight<K, Optional<Planet>> countingJoins(CountDownLatch followersJoined) {
+        return new SingleFlight<>() {
+            @Override
+            protected void joined(K key) {
+                followersJoined.countDown();
+            }
+        };
+    }
+
+    static List<Optional<Planet>> runConcurrently(Callable<Optional<Planet>> lookup) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            List<Future<Optional<Planet>>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                futures.add(executor.submit(lookup));
+            }
+
+            List<Optional<Planet>> results = new ArrayList<>();
+            for (Future<Optional<Planet>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @DisplayName("Teste unitário: Testa a lista planetas retorna todos os planets")
     @Test
     public void listPlanets_ReturnsAllPlanets() {
@@ -97,6 +280,7 @@ public class PlanetServiceTest {
         assertThat(sut).hasSize(1);
         assertThat(sut.get(0)).isEqualTo(PLANET);
     }
+
     @DisplayName("Teste unitário: Testa a lista planetas retorna sem planets")
     @Test
     public void listPlanets_ReturnsNoPlanets() {
@@ -106,17 +290,324 @@ public class PlanetServiceTest {
 
         assertThat(sut).isEmpty();
     }
+
+    @DisplayName("Teste unitário: Testa a paginação por cursor indicando que existe próxima página")
+    @Test
+    public void listPlanets_WithLimit_ReturnsSliceWithNext() {
+        when(planetRepository.findAllAfter(any(), eq(1L), eq(3))).thenReturn(List.of(ALDERAAN, YAVINIV, TATOOINE));
+
+        var sut = planetService.list(null, null, 1L, 2);
+
+        assertThat(sut.getContent()).containsExactly(ALDERAAN, YAVINIV);
+        assertThat(sut.hasNext()).isTrue();
+    }
+
+    @DisplayName("Teste unitário: Testa a listagem projetada pedindo um registro a mais para saber se há próxima página")
+    @Test
+    public void listPlanets_WithFieldsAndLimit_ReturnsProjectedSliceWithNext() {
+        Set<PlanetField> fields = EnumSet.of(PlanetField.ID, PlanetField.NAME);
+        List<PlanetProjection> projections = List.of(PlanetProjection.of(ALDERAAN, fields), PlanetProjection.of(YAVINIV, fields));
+        when(planetRepository.findProjectedAfter(any(), eq(fields), eq(1L), eq(2))).thenReturn(projections);
+
+        var sut = planetService.list(null, null, fields, 1L, 1);
+
+        assertThat(sut.getContent()).containsExactly(projections.get(0));
+        assertThat(sut.hasNext()).isTrue();
+    }
+
+    @DisplayName("Teste unitário: Testa a exportação entregando cada planeta do stream ao consumidor")
+    @Test
+    public void exportPlanets_PassesEveryPlanetToConsumer() {
+        when(planetRepository.streamAll(any())).thenReturn(PLANET_LIST.stream());
+        List<Planet> exported = new ArrayList<>();
+
+        planetService.export(null, null, exported::add);
+
+        assertThat(exported).containsExactlyElementsOf(PLANET_LIST);
+    }
+
     @DisplayName("Teste unitário: Testa a remoção planeta com id existente e não lança nenhuma exceção")
     @Test
     public void removePlanet_WithExistingId_doesNotThrowAnyException() {
-        assertThatCode(() -> planetService.remove(1L)).doesNotThrowAnyException();
+        when(planetRepository.deleteReturningCount(1L)).thenReturn(1);
+
+        assertThat(planetService.remove(1L)).isTrue();
+    }
+
+    @DisplayName("Teste unitário: Testa a remoção planeta com id inexistente retornando falso sem exceção")
+    @Test
+    public void removePlanet_WithUnexistingId_ReturnsFalse() {
+        when(planetRepository.deleteReturningCount(99L)).thenReturn(0);
+
+        assertThat(planetService.remove(99L)).isFalse();
+        verify(planetCache, never()).evict(99L);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @DisplayName("Teste unitário: Testa a remoção por filtro descartando o cache e avisando os índices dos removidos")
+    @Test
+    public void removePlanets_ByFilter_EvictsCacheAndPublishesRemovedEvents() {
+        when(planetRepository.deleteAllMatching(any())).thenReturn(1);
+        when(searchIndex.matching("arid", null)).thenReturn(List.of(TATOOINE));
+
+        assertThat(planetService.removeAll(null, "arid").removed()).isEqualTo(1);
+        verify(planetCache).evictAll();
+        verify(eventPublisher).publishEvent(new PlanetRemovedEvent(TATOOINE));
+    }
+
+    @DisplayName("Teste unitário: Testa a remoção por filtro de linhas fora do índice pedindo a recarga dos índices")
+    @Test
+    public void removePlanets_ByFilterWithUnindexedRows_PublishesUntrackedChange() {
+        when(planetRepository.deleteAllMatching(any())).thenReturn(2);
+        when(searchIndex.matching("arid", null)).thenReturn(List.of(TATOOINE));
+
+        planetService.removeAll(null, "arid");
+
+        verify(eventPublisher).publishEvent(new PlanetRemovedEvent(TATOOINE));
+        verify(eventPublisher).publishEvent(new PlanetsChangedUntrackedEvent());
+    }
+
+    @DisplayName("Teste unitário: Testa a remoção por ids de linhas fora do índice pedindo a recarga dos índices")
+    @Test
+    public void removePlanets_ByIdsWithUnindexedRows_PublishesUntrackedChange() {
+        when(planetRepository.deleteAllReturningCount(List.of(1L, 2L))).thenReturn(2);
+        when(searchIndex.get(1L)).thenReturn(Optional.of(TATOOINE));
+        when(searchIndex.get(2L)).thenReturn(Optional.empty());
+
+        assertThat(planetService.removeAll(List.of(1L, 2L)).removed()).isEqualTo(2);
+        verify(eventPublisher).publishEvent(new PlanetRemovedEvent(TATOOINE));
+        verify(eventPublisher).publishEvent(new PlanetsChangedUntrackedEvent());
+    }
+
+    @DisplayName("Teste unitário: Testa o upsert que atualiza um planeta trocando-o nos índices e no cache")
+    @Test
+    public void upsertPlanet_WithExistingName_ReplacesPlanetInIndexes() {
+        Planet updated = new Planet(1L, "Tatooine", "temperate", "desert");
+        when(planetRepository.upsertByName(any())).thenReturn(new PlanetUpsert(updated, false));
+        when(searchIndex.get(1L)).thenReturn(Optional.of(TATOOINE));
+
+        var sut = planetService.upsert(new Planet("Tatooine", "temperate", "desert"));
+
+        assertThat(sut.created()).isFalse();
+        verify(planetCache).evict(1L);
+        verify(eventPublisher).publishEvent(new PlanetRemovedEvent(TATOOINE));
+        verify(eventPublisher).publishEvent(new PlanetCreatedEvent(updated));
+    }
+
+    @DisplayName("Teste unitário: Testa o upsert de um planeta fora do índice pedindo a recarga dos índices")
+    @Test
+    public void upsertPlanet_WithExistingNameNotIndexed_PublishesUntrackedChange() {
+        Planet updated = new Planet(1L, "Tatooine", "temperate", "desert");
+        when(planetRepository.upsertByName(any())).thenReturn(new PlanetUpsert(updated, false));
+        when(searchIndex.get(1L)).thenReturn(Optional.empty());
+
+        planetService.upsert(new Planet("Tatooine", "temperate", "desert"));
+
+        verify(planetCache).evict(1L);
+        verify(eventPublisher).publishEvent(new PlanetsChangedUntrackedEvent());
+        verify(eventPublisher, never()).publishEvent(any(PlanetCreatedEvent.class));
+    }
+
+    @DisplayName("Teste unitário: Testa a atualização pela versão trocando o planeta nos índices sem lê-lo do banco")
+    @Test
+    public void updatePlanet_WithCurrentVersion_ReplacesPlanetInIndexes() {
+        when(planetRepository.updateIfVersion(1L, 3L, new Planet(null, "temperate", null))).thenReturn(1);
+        when(searchIndex.get(1L)).thenReturn(Optional.of(new Planet(1L, "Tatooine", "arid", "desert")));
+
+        var sut = planetService.update(1L, 3L, new Planet(null, "temperate", null));
+
+        assertThat(sut).contains(4L);
+        verify(planetRepository, never()).findVersionById(anyLong());
+        verify(planetCache).evict(1L);
+        verify(eventPublisher).publishEvent(new PlanetRemovedEvent(new Planet(1L, "Tatooine", "arid", "desert")));
+        verify(eventPublisher).publishEvent(new PlanetCreatedEvent(new Planet(1L, "Tatooine", "temperate", "desert")));
+    }
+
+    @DisplayName("Teste unitário: Testa a atualização pela versão de um planeta fora do índice pedindo a recarga dos índices")
+    @Test
+    public void updatePlanet_WithCurrentVersionNotIndexed_PublishesUntrackedChange() {
+        when(planetRepository.updateIfVersion(1L, 3L, new Planet("Tatooine II", null, null))).thenReturn(1);
+        when(searchIndex.get(1L)).thenReturn(Optional.empty());
+
+        var sut = planetService.update(1L, 3L, new Planet("Tatooine II", null, null));
+
+        assertThat(sut).contains(4L);
+        verify(planetCache).evict(1L);
+        verify(planetCache).evictMisses(new Planet(1L, "Tatooine II", null, null));
+        verify(planetRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(new PlanetsChangedUntrackedEvent());
+        verify(eventPublisher, never()).publishEvent(any(PlanetCreatedEvent.class));
+    }
+
+    @DisplayName("Teste unitário: Testa a atualização de um planeta fora do índice pedindo a recarga dos índices")
+    @Test
+    public void updatePlanet_NotIndexed_PublishesUntrackedChange() {
+        Planet updated = new Planet(1L, "Tatooine", "temperate", "desert");
+        when(planetRepository.updateById(1L, new Planet(null, "temperate", null))).thenReturn(Optional.of(updated));
+        when(searchIndex.get(1L)).thenReturn(Optional.empty());
+
+        var sut = planetService.update(1L, new Planet(null, "temperate", null));
+
+        assertThat(sut).contains(updated);
+        verify(planetCache).put(updated);
+        verify(eventPublisher).publishEvent(new PlanetsChangedUntrackedEvent());
+        verify(eventPublisher, never()).publishEvent(any(PlanetCreatedEvent.class));
+    }
+
+    @DisplayName("Teste unitário: Testa a atualização com versão antiga lançando exceção com a versão atual")
+    @Test
+    public void updatePlanet_WithStaleVersion_ThrowsException() {
+        when(planetRepository.updateIfVersion(eq(1L), eq(3L), any())).thenReturn(0);
+        when(planetRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        assertThatThrownBy(() -> planetService.update(1L, 3L, new Planet(null, "temperate", null)))
+                .isInstanceOf(PlanetVersionMismatchException.class)
+                .extracting("currentVersion").isEqualTo(5L);
+        verifyNoInteractions(planetCache, eventPublisher);
+    }
+
+    @DisplayName("Teste unitário: Testa a atualização pela versão de um planeta inexistente retornando vazio")
+    @Test
+    public void updatePlanet_WithUnexistingId_ReturnsEmpty() {
+        when(planetRepository.updateIfVersion(eq(99L), eq(0L), any())).thenReturn(0);
+        when(planetRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        assertThat(planetService.update(99L, 0L, new Planet(null, "temperate", null))).isEmpty();
+    }
+
+    @DisplayName("Teste unitário: Testa a remoção planeta invalidando a entrada do cache")
+    @Test
+    public void removePlanet_WithExistingId_EvictsCache() {
+        when(searchIndex.get(1L)).thenReturn(Optional.of(TATOOINE));
+        when(planetRepository.deleteReturningCount(1L)).thenReturn(1);
+
+        planetService.remove(1L);
+
+        verify(planetCache).evict(1L);
+        verify(eventPublisher).publishEvent(new PlanetRemovedEvent(TATOOINE));
+    }
+
+    @DisplayName("Teste unitário: Testa a remoção de um planeta fora do índice pedindo a recarga dos índices")
+    @Test
+    public void removePlanet_NotIndexed_PublishesUntrackedChange() {
+        when(searchIndex.get(1L)).thenReturn(Optional.empty());
+        when(planetRepository.deleteReturningCount(1L)).thenReturn(1);
+
+        assertThat(planetService.remove(1L)).isTrue();
+        verify(planetRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(new PlanetsChangedUntrackedEvent());
+        verify(eventPublisher, never()).publishEvent(any(PlanetRemovedEvent.class));
     }
-    @DisplayName("Teste unitário: Testa a remoção planeta com id inexistente e deve lançar exceção")
+
+    @DisplayName("Teste unitário: Testa a criação planeta publicando o evento para os índices em memória")
+    @Test
+    public void createPlanet_WithValidData_PublishesCreatedEvent() {
+        when(planetRepository.save(PLANET)).thenReturn(TATOOINE);
+
+        planetService.create(PLANET);
+
+        verify(eventPublisher).publishEvent(new PlanetCreatedEvent(TATOOINE));
+    }
+
+    @DisplayName("Teste unitário: Testa a busca por trecho delegando ao índice de trigramas")
+    @Test
+    public void searchPlanets_DelegatesToSearchIndex() {
+        when(searchIndex.search(null, "temp", null, 10)).thenReturn(List.of(ALDERAAN, YAVINIV));
+
+        var sut = planetService.search(null, "temp", null, 10);
+
+        assertThat(sut).containsExactly(ALDERAAN, YAVINIV);
+        verifyNoInteractions(planetRepository);
+    }
+
+    @DisplayName("Teste unitário: Testa a contagem filtrada a partir das contagens em memória sem consultar o banco")
+    @Test
+    public void countPlanets_DelegatesToCounts() {
+        when(counts.count("temperate", "grass")).thenReturn(1L);
+
+        var sut = planetService.count("grass", "temperate");
+
+        assertThat(sut).isEqualTo(1L);
+        verifyNoInteractions(planetRepository);
+    }
+
+    @DisplayName("Teste unitário: Testa a sugestão de nomes por prefixo sem consultar o banco")
+    @Test
+    public void suggestPlanets_DelegatesToNameSuggester() {
+        when(nameSuggester.suggest("ta", 10)).thenReturn(List.of("Tatooine"));
+
+        var sut = planetService.suggest("ta", 10);
+
+        assertThat(sut).containsExactly("Tatooine");
+        verifyNoInteractions(planetRepository);
+    }
+
+    @DisplayName("Teste unitário: Testa a busca por nome ausente no filtro sem consultar o banco quando há um único escritor")
     @Test
-    public void removePlanet_WithUnexistingId_ThrowsException() {
-        doThrow(new RuntimeException()).when(planetRepository).deleteById(99L);
+    public void getPlanet_ByNameRejectedByTrustedFilter_DoesNotQueryRepository() {
+        when(nameFilter.trustsNegatives()).thenReturn(true);
 
-        assertThatThrownBy(() -> planetService.remove(99L)).isInstanceOf(RuntimeException.class);
+        var sut = planetService.getByName("Unexisting name");
+
+        assertThat(sut).isEmpty();
+        verifyNoInteractions(planetRepository);
     }
 
+    @DisplayName("Teste unitário: Testa a busca por nome ausente no filtro consultando o banco sem um único escritor")
+    @Test
+    public void getPlanet_ByNameRejectedByFilter_QueriesRepository() {
+        when(planetRepository.findByName(TATOOINE.getName())).thenReturn(Optional.of(TATOOINE));
+
+        var sut = planetService.getByName(TATOOINE.getName());
+
+        assertThat(sut).contains(TATOOINE);
+        verify(nameFilter, never()).recordFalsePositive();
+    }
+
+    @DisplayName("Teste unitário: Testa a busca por nome que o filtro deixou passar registrando falso positivo")
+    @Test
+    public void getPlanet_ByUnexistingNameAllowedByFilter_RecordsFalsePositive() {
+        when(nameFilter.mightContain("Unexisting name")).thenReturn(true);
+        when(planetRepository.findByName("Unexisting name")).thenReturn(Optional.empty());
+
+        planetService.getByName("Unexisting name");
+
+        verify(nameFilter).recordFalsePositive();
+    }
+
+    @DisplayName("Teste unitário: Testa a criação planeta com nome existente lança exceção sem tentar inserir")
+    @Test
+    public void createPlanet_WithExistingName_ThrowsExceptionWithoutInsert() {
+        when(nameFilter.mightContain(PLANET.getName())).thenReturn(true);
+        when(planetRepository.findByName(PLANET.getName())).thenReturn(Optional.of(PLANET));
+
+        assertThatThrownBy(() -> planetService.create(PLANET)).isInstanceOf(DataIntegrityViolationException.class);
+        verify(planetRepository, never()).save(any());
+    }
+
+    @DisplayName("Teste unitário: Testa a criação em lote com nomes novos no filtro sem verificar conflitos no banco")
+    @Test
+    public void createPlanets_WithNamesRejectedByFilter_SkipsConflictQuery() {
+        List<Planet> planets = List.of(new Planet("Hoth", "frozen", "tundra"));
+        when(planetRepository.insertAll(planets)).thenReturn(planets);
+
+        planetService.createAll(planets);
+
+        verify(planetRepository, never()).findNamesIn(any());
+    }
+
+    @DisplayName("Teste unitário: Testa a busca de vários ids em uma consulta preservando a ordem pedida")
+    @Test
+    public void getPlanets_ByIds_LoadsUncachedInOneQueryInRequestOrder() {
+        when(planetCache.getById(anyLong())).thenReturn(null);
+        when(planetCache.getById(2L)).thenReturn(ALDERAAN);
+        when(planetRepository.findAllById(List.of(3L, 1L, 99L))).thenReturn(List.of(TATOOINE, YAVINIV));
+
+        var sut = planetService.getAll(List.of(3L, 2L, 1L, 99L, 3L));
+
+        assertThat(sut.planets()).containsExactly(YAVINIV, ALDERAAN, TATOOINE);
+        assertThat(sut.missing()).containsExactly(99L);
+        verify(planetCache).putLoaded(eq(TATOOINE), anyLong());
+        verify(planetCache).putMissing(99L);
+    }
 }
@@ -0,0 +1,134 @@
+package com.example.swplanetapi.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every lost race on the read-modify-write path is logged by Hibernate as a failed batch.
+@DataJpaTest(showSql = false, properties = "logging.level.org.hibernate.engine.jdbc.batch.internal.BatchingBatch=off")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(value = {"/remove_planets.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PlanetUpdateContentionTest {
+
+    private static final int UPDATERS = 8;
+    private static final int UPDATES_PER_UPDATER = 100;
+    private static final int UPDATES = UPDATERS * UPDATES_PER_UPDATER;
+
+    @Autowired
+    private PlanetRepository planetRepository;
+
+    private Long id;
+
+    @BeforeEach
+    public void beforeEach() {
+        id = planetRepository.save(new Planet("Hoth", "frozen", "tundra")).getId();
+    }
+
+    @DisplayName("Benchmark: Testa atualizações condicionais concorrentes no mesmo planeta sem perder nenhuma")
+    @Test
+    public void updateIfVersion_ConcurrentUpdaters_LoseNoUpdate() throws Exception {
+        Set<Long> appliedVersions = ConcurrentHashMap.newKeySet();
+        AtomicLong conflicts = new AtomicLong();
+
+        Duration elapsed = race((updater, update) -> {
+            while (true) {
+                long version = planetRepository.findVersionById(id).orElseThrow();
+                Planet changes = new Planet(null, null, "terrain-" + updater + "-" + update);
+                if (planetRepository.updateIfVersion(id, version, changes) == 1) {
+                    assertThat(appliedVersions.add(version)).isTrue();
+                    return;
+                }
+                conflicts.incrementAndGet();
+            }
+        });
+
+        report("updateIfVersion", elapsed, conflicts.get());
+        assertNoLostUpdates(appliedVersions);
+    }
+
+    @DisplayName("Benchmark: Testa leituras e escritas concorrentes com bloqueio otimista sem perder nenhuma")
+    @Test
+    public void updateById_ConcurrentUpdaters_LoseNoUpdate() throws Exception {
+        Set<Long> appliedVersions = ConcurrentHashMap.newKeySet();
+        AtomicLong conflicts = new AtomicLong();
+
+        Duration elapsed = race((updater, update) -> {
+            while (true) {
+                try {
+                    Planet changes = new Planet(null, null, "terrain-" + updater + "-" + update);
+                    long version = planetRepository.updateById(id, changes).orElseThrow().getVersion();
+                    assertThat(appliedVersions.add(version - 1)).isTrue();
+                    return;
+                } catch (OptimisticLockingFailureException ex) {
+                    conflicts.incrementAndGet();
+                }
+            }
+        });
+
+        report("updateById", elapsed, conflicts.get());
+        assertNoLostUpdates(appliedVersions);
+    }
+
+    // Every update moved the version by one from the value it was based on, so the versions the
+    // updates were applied to are exactly 0..UPDATES-1 only if none overwrote another.
+    private void assertNoLostUpdates(Set<Long> appliedVersions) {
+        assertThat(appliedVersions).isEqualTo(LongStream.range(0, UPDATES).boxed().collect(Collectors.toSet()));
+        assertThat(planetRepository.findVersionById(id)).contains((long) UPDATES);
+    }
+
+    private static void report(String operation, Duration elapsed, long conflicts) {
+        System.out.printf("%s: %d updates of one planet by %d updaters in %d ms (%.0f/s), %d conflicts retried%n",
+                operation, UPDATES, UPDATERS, elapsed.toMillis(), UPDATES * 1e9 / elapsed.toNanos(), conflicts);
+    }
+
+    private static Duration race(Updater updater) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(UPDATERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < UPDATERS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int update = 0; update < UPDATES_PER_UPDATER; update++) {
+                        updater.update(index, update);
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return Duration.ofNanos(System.nanoTime() - begin);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Updater {
+        void update(int updater, int update);
+    }
+}
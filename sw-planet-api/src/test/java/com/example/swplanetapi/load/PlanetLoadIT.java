@@ -0,0 +1,235 @@
+package com.example.swplanetapi.load;
+
+import com.example.swplanetapi.domain.InMemoryPlanetIndex;
+import com.example.swplanetapi.domain.Planet;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-model load test: requests are sent at {@code load.rate} per second whatever the response
+ * times, drawn from the {@code load.mix} weights, and latency is measured from when each request
+ * was due, so a stalled server cannot hide its backlog. The run fails when the p99 or the achieved
+ * throughput breaks its budget. It runs on in-memory H2; {@code -Dload.database=mysql} runs it
+ * against MySQL in a container instead.
+ *
+ * <pre>mvn verify -Pload-test [-Dload.rate=100 -Dload.budget.p99=PT0.25S -Dload.database=mysql]</pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(value = {"/remove_planets.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PlanetLoadIT {
+    private static final String[] CLIMATES = {"arid", "temperate", "frozen", "murky", "tropical"};
+
+    // Seeded ids stay below the sequence's initial value, as in import_planets.sql.
+    private static final int PLANETS = Integer.getInteger("load.planets", 500);
+    private static final int RATE = Integer.getInteger("load.rate", 100);
+    private static final String MIX = System.getProperty("load.mix", "create=10,get=40,getByName=20,list=25,delete=5");
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final Duration P99_BUDGET = Duration.parse(System.getProperty("load.budget.p99", "PT0.25S"));
+    private static final double THROUGHPUT_BUDGET = Double.parseDouble(
+            System.getProperty("load.budget.throughput", Double.toString(RATE * 0.95)));
+    private static final boolean MYSQL = "mysql".equals(System.getProperty("load.database", "h2"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private List<InMemoryPlanetIndex<?>> inMemoryIndexes;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong createdNames = new AtomicLong();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        if (MYSQL) {
+            registry.add("spring.datasource.url",
+                    () -> "jdbc:tc:mysql:8.0:///starwars?TC_IMAGE_TAG=8.0&useCursorFetch=true&rewriteBatchedStatements=true");
+        } else {
+            registry.add("spring.datasource.url", () -> "jdbc:h2:mem:load;DB_CLOSE_DELAY=-1");
+            registry.add("spring.datasource.username", () -> "sa");
+            registry.add("spring.datasource.password", () -> "");
+        }
+    }
+
+    @BeforeEach
+    public void seed() {
+        if (PLANETS >= 1000) {
+            throw new IllegalArgumentException("load.planets must stay below the sequence's initial value 1000");
+        }
+        List<Object[]> rows = new ArrayList<>(PLANETS);
+        for (int id = 1; id <= PLANETS; id++) {
+            rows.add(new Object[] {id, "planet-" + id, CLIMATES[id % CLIMATES.length], "desert"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO planets (id, name, climate, terrain) VALUES (?, ?, ?, ?)", rows);
+        inMemoryIndexes.forEach(InMemoryPlanetIndex::rebuild);
+    }
+
+    @DisplayName("Teste de carga: Vazão e p99 da API com uma mistura de operações a taxa constante")
+    @Test
+    public void planetsApi_UnderTargetRate_StaysWithinBudgets() {
+        Mix mix = Mix.parse(MIX);
+        run(mix, WARMUP);
+        Result result = run(mix, DURATION);
+        System.out.printf("%s, %d req/s target (%s): %.0f req/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms, %d errors%n",
+                MYSQL ? "MySQL" : "H2", RATE, MIX, result.throughput(),
+                millis(result.latency().getValueAtPercentile(50)), millis(result.latency().getValueAtPercentile(99)),
+                millis(result.latency().getMaxValue()), result.errors());
+
+        assertThat(result.errors()).isZero();
+        assertThat(Duration.ofNanos(result.latency().getValueAtPercentile(99))).isLessThanOrEqualTo(P99_BUDGET);
+        assertThat(result.throughput()).isGreaterThanOrEqualTo(THROUGHPUT_BUDGET);
+    }
+
+    private Result run(Mix mix, Duration duration) {
+        Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        AtomicLong errors = new AtomicLong();
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+        long interval = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long start = System.nanoTime();
+
+        for (long due = start; due - start < duration.toNanos(); due += interval) {
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long sent = due;
+            Operation operation = mix.next();
+            requests.add(send(operation).handle((succeeded, ex) -> {
+                if (ex == null && succeeded) {
+                    latency.recordValue(Math.min(System.nanoTime() - sent, latency.getHighestTrackableValue()));
+                } else {
+                    errors.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(latency, errors.get(), latency.getTotalCount() / seconds);
+    }
+
+    private CompletableFuture<Boolean> send(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int seeded = random.nextInt(1, PLANETS + 1);
+        Long deletable = operation == Operation.DELETE ? createdIds.poll() : null;
+        return switch (operation == Operation.DELETE && deletable == null ? Operation.GET : operation) {
+            case CREATE -> client.sendAsync(request("/planets")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(json(new Planet(
+                                    "created-" + createdNames.incrementAndGet(), "arid", "desert"))))
+                            .build(), HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> response.statusCode() == 201 && created(response.body()));
+            case GET -> expect(request("/planets/" + seeded).GET().build(), 200);
+            case GET_BY_NAME -> expect(request("/planets/name/planet-" + seeded).GET().build(), 200);
+            case LIST -> expect(request("/planets?climate=" + CLIMATES[seeded % CLIMATES.length] + "&limit=20")
+                    .GET().build(), 200);
+            case DELETE -> expect(request("/planets/" + deletable).DELETE().build(), 204);
+        };
+    }
+
+    private CompletableFuture<Boolean> expect(HttpRequest request, int status) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() == status);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofMinutes(1));
+    }
+
+    private boolean created(String body) {
+        try {
+            createdIds.add(objectMapper.readValue(body, Planet.class).getId());
+            return true;
+        } catch (JsonProcessingException ex) {
+            return false;
+        }
+    }
+
+    private String json(Planet planet) {
+        try {
+            return objectMapper.writeValueAsString(planet);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private enum Operation {
+        CREATE, GET, GET_BY_NAME, LIST, DELETE
+    }
+
+    /** Weighted operation picker, parsed from {@code create=10,get=40,...}. */
+    private record Mix(Operation[] operations, int[] cumulativeWeights) {
+
+        static Mix parse(String spec) {
+            Map<Operation, Integer> weights = new LinkedHashMap<>();
+            for (String entry : spec.split(",")) {
+                String[] pair = entry.trim().split("=");
+                String name = pair[0].trim().replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase();
+                weights.put(Operation.valueOf(name), Integer.parseInt(pair[1].trim()));
+            }
+            Operation[] operations = weights.keySet().toArray(Operation[]::new);
+            int[] cumulative = new int[operations.length];
+            int total = 0;
+            for (int i = 0; i < operations.length; i++) {
+                total += weights.get(operations[i]);
+                cumulative[i] = total;
+            }
+            return new Mix(operations, cumulative);
+        }
+
+        Operation next() {
+            int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; ; i++) {
+                if (pick < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+        }
+    }
+
+    private record Result(Histogram latency, long errors, double throughput) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.swplanetapi.threads;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadsTest {
+
+    @DisplayName("Teste unitário: Testa que pedir threads virtuais antes do Java 21 falha com mensagem clara")
+    @Test
+    public void factory_BeforeJava21_Fails() {
+        assumeTrue(Runtime.version().feature() < 21);
+        assertThat(VirtualThreads.isSupported()).isFalse();
+        assertThatThrownBy(() -> VirtualThreads.factory("test-"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Java 21");
+    }
+
+    @DisplayName("Teste unitário: Testa que o executor cria uma thread virtual nomeada por tarefa")
+    @Test
+    public void newThreadPerTaskExecutor_RunsEachTaskOnItsOwnVirtualThread() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21);
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-");
+        try {
+            Thread first = executor.submit(Thread::currentThread).get(1, TimeUnit.SECONDS);
+            Thread second = executor.submit(Thread::currentThread).get(1, TimeUnit.SECONDS);
+
+            assertThat(first).isNotSameAs(second);
+            assertThat(first.getName()).startsWith("test-");
+            assertThat(Thread.class.getMethod("isVirtual").invoke(first)).isEqualTo(true);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.swplanetapi.timing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter(null);
+
+    @DisplayName("Teste unitário: Testa que o cabeçalho traz o tempo e a quantidade de comandos SQL da requisição")
+    @Test
+    public void doFilter_WithStatements_ReportsSqlTimeAndCount() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/planets"), response, (req, res) -> {
+            RequestTiming timing = RequestTiming.current();
+            timing.addSql(2_000_000);
+            timing.addStatement();
+            timing.addSql(1_000_000);
+            timing.addStatement();
+            ServletOutputStream body = res.getOutputStream();
+            body.write("[]".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+        });
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER))
+                .matches("app;dur=[\\d.]+, sql;dur=3\\.00;desc=\"2 statements\", ser;dur=[\\d.]+, total;dur=[\\d.]+");
+        assertThat(RequestTiming.current()).isNull();
+    }
+
+    @DisplayName("Teste unitário: Testa que o cabeçalho sai antes de o corpo estourar o buffer da resposta")
+    @Test
+    public void doFilter_WithBodyLargerThanBuffer_WritesHeaderBeforeCommit() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setBufferSize(16);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/planets"), response,
+                (req, res) -> res.getOutputStream().write(new byte[64]));
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).contains("desc=\"0 statements\"");
+    }
+
+    @DisplayName("Teste unitário: Testa que respostas sem corpo também recebem o cabeçalho")
+    @Test
+    public void doFilter_WithoutBody_WritesHeader() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/planets/1"), response,
+                (req, res) -> ((HttpServletResponse) res).setStatus(204));
+
+        assertThat(response.getStatus()).isEqualTo(204);
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).startsWith("app;dur=");
+    }
+}
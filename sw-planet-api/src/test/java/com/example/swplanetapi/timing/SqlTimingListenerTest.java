@@ -0,0 +1,51 @@
+package com.example.swplanetapi.timing;
+
+import com.example.swplanetapi.domain.Planet;
+import com.example.swplanetapi.domain.PlanetRepository;
+import com.example.swplanetapi.domain.QueryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Sql(value = {"/import_planets.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class SqlTimingListenerTest {
+
+    @Autowired
+    private PlanetRepository planetRepository;
+
+    @AfterEach
+    public void afterEach() {
+        RequestTiming.clear();
+    }
+
+    @DisplayName("Teste de integração: Testa que uma listagem filtrada executa exatamente um comando SQL")
+    @Test
+    public void findAll_WithFilter_RecordsOneStatement() {
+        RequestTiming timing = RequestTiming.start();
+
+        List<Planet> planets = planetRepository.findAll(QueryBuilder.makeQuery(new Planet("temperate", null)));
+
+        assertThat(planets).hasSize(2);
+        assertThat(timing.getStatements()).isEqualTo(1);
+        assertThat(timing.getSqlNanos()).isPositive();
+    }
+
+    @DisplayName("Teste de integração: Testa que comandos fora de uma requisição cronometrada não são registrados")
+    @Test
+    public void findAll_OutsideTimedRequest_RecordsNothing() {
+        RequestTiming timing = RequestTiming.start();
+        RequestTiming.clear();
+
+        planetRepository.findAll();
+
+        assertThat(timing.getStatements()).isZero();
+    }
+}
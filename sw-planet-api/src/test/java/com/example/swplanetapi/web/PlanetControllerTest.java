@@ -1,46 +1,98 @@
 package com.example.swplanetapi.web;
 
+import com.example.swplanetapi.domain.Planet;
+import com.example.swplanetapi.domain.PlanetImportSummary;
+import com.example.swplanetapi.domain.PlanetImporter;
+import com.example.swplanetapi.domain.PlanetField;
+import com.example.swplanetapi.domain.PlanetLookup;
+import com.example.swplanetapi.domain.PlanetProjection;
+import com.example.swplanetapi.domain.PlanetNameConflictException;
+import com.example.swplanetapi.domain.PlanetRemovalSummary;
 import com.example.swplanetapi.domain.PlanetService;
+import com.example.swplanetapi.domain.PlanetStats;
+import com.example.swplanetapi.domain.PlanetUpsert;
+import com.example.swplanetapi.domain.PlanetVersionMismatchException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ResolvableType;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static com.example.swplanetapi.common.PlanetConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PlanetController.class)
+@Import(SimpleMeterRegistry.class)
 class PlanetControllerTest {
 
     @MockBean
     private PlanetService planetService;
 
+    @MockBean
+    private PlanetImporter planetImporter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
     @DisplayName("Teste de integração: Criando planetas retornando com sucesso na controller")
     @Test
     public void createPlanet_WithValidData_ReturnsPlanet() throws Exception {
@@ -52,6 +104,18 @@ class PlanetControllerTest {
                 .andExpect(jsonPath("$").value(PLANET));
     }
 
+    @DisplayName("Teste de integração: Criando planeta com id no corpo retornando o planeta com o id gerado")
+    @Test
+    public void createPlanet_WithIdInBody_ReturnsCreatedPlanet() throws Exception {
+        Planet created = new Planet(7L, "Hoth", "frozen", "tundra");
+        when(planetService.create(new Planet(42L, "Hoth", "frozen", "tundra"))).thenReturn(created);
+
+        mockMvc.perform(post("/planets").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":42,\"name\":\"Hoth\",\"climate\":\"frozen\",\"terrain\":\"tundra\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(7));
+    }
+
     @DisplayName("Teste de integração: lançando exceção por dados estarem inválidos")
     @Test
     public void createPlanet_WithIvalidData_ReturnsPlanet() throws Exception {
@@ -75,6 +139,87 @@ class PlanetControllerTest {
 
     }
 
+    @DisplayName("Teste de integração: Criando planetas em lote retornando com sucesso na controller")
+    @Test
+    public void createPlanets_WithValidData_ReturnsPlanets() throws Exception {
+        when(planetService.createAll(PLANET_LIST)).thenReturn(PLANET_LIST);
+
+        mockMvc
+                .perform(post("/planets/batch").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(PLANET_LIST)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @DisplayName("Teste de integração: lançando exceção por um dos planetas do lote estar inválido")
+    @Test
+    public void createPlanets_WithInvalidData_ReturnsUnprocessableEntity() throws Exception {
+        mockMvc
+                .perform(post("/planets/batch").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(List.of(TATOOINE, INVALID_PLANET))))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc
+                .perform(post("/planets/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @DisplayName("Teste de integração: lançando exceção por conflito informando os nomes em conflito")
+    @Test
+    public void createPlanets_WithExistingNames_ReturnsConflictingNames() throws Exception {
+        when(planetService.createAll(any())).thenThrow(new PlanetNameConflictException(Set.of(TATOOINE.getName())));
+
+        mockMvc
+                .perform(post("/planets/batch").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(PLANET_LIST)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.conflictingNames", contains(TATOOINE.getName())));
+    }
+
+    @DisplayName("Teste de integração: Importando planetas de um CSV retornando o resumo da importação")
+    @Test
+    public void importPlanets_FromCsv_ReturnsSummary() throws Exception {
+        List<Planet> imported = captureImportedRows();
+        String csv = "terrain,name,climate\n"
+                + "desert,Tatooine,arid\n"
+                + "\"grasslands, mountains\",Alderaan,temperate\n";
+
+        mockMvc.perform(post("/planets/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(2))
+                .andExpect(jsonPath("$.inserted").value(2));
+
+        assertThat(imported).containsExactly(new Planet("Tatooine", "arid", "desert"),
+                new Planet("Alderaan", "temperate", "grasslands, mountains"));
+    }
+
+    @DisplayName("Teste de integração: Importando planetas de um arquivo NDJSON enviado por multipart")
+    @Test
+    public void importPlanets_FromMultipartNdjson_ReturnsSummary() throws Exception {
+        List<Planet> imported = captureImportedRows();
+        String ndjson = objectMapper.writeValueAsString(PLANET) + "\n{not json}\n";
+        MockMultipartFile file = new MockMultipartFile("file", "planets.ndjson", null, ndjson.getBytes());
+
+        mockMvc.perform(multipart("/planets/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(2));
+
+        assertThat(imported).containsExactly(PLANET, new Planet());
+    }
+
+    @DisplayName("Teste de integração: Importando CSV sem as colunas obrigatórias retornando bad request")
+    @Test
+    public void importPlanets_FromCsvWithoutHeader_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/planets/import").contentType("text/csv").content("Tatooine,arid,desert\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Planet> captureImportedRows() throws InterruptedException {
+        List<Planet> imported = new ArrayList<>();
+        when(planetImporter.importAll(any())).thenAnswer(invocation -> {
+            Iterator<Planet> rows = invocation.getArgument(0);
+            rows.forEachRemaining(imported::add);
+            return new PlanetImportSummary(imported.size(), imported.size(), 0, 1);
+        });
+        return imported;
+    }
+
     @DisplayName("Teste de integração: Testa a busca por id e retorna um planet e status code ok")
     @Test
     public void getPlanet_ByExistingId_ReturnsPlanet() throws Exception {
@@ -87,6 +232,51 @@ class PlanetControllerTest {
 
     }
 
+    @DisplayName("Teste de integração: Testa a busca por id com ETag atual retornando not modified sem carregar o planeta")
+    @Test
+    public void getPlanet_WithCurrentETag_ReturnsNotModifiedWithoutLoading() throws Exception {
+        when(planetService.getVersion(1L)).thenReturn(Optional.of(3L));
+
+        mockMvc
+                .perform(get("/planets/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(content().string(""));
+        verify(planetService, never()).get(1L);
+    }
+
+    @DisplayName("Teste de integração: Testa a busca por id com ETag antiga retornando o planeta")
+    @Test
+    public void getPlanet_WithStaleETag_ReturnsPlanet() throws Exception {
+        when(planetService.getVersion(1L)).thenReturn(Optional.of(4L));
+        when(planetService.get(1L)).thenReturn(Optional.of(TATOOINE));
+
+        mockMvc
+                .perform(get("/planets/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(TATOOINE));
+    }
+
+    @DisplayName("Teste de integração: Testa a busca por id com ETag de outra codificação retornando o planeta com a ETag da negociada")
+    @Test
+    public void getPlanet_WithETagOfOtherEncoding_ReturnsPlanetWithItsETag() throws Exception {
+        when(planetService.getVersion(1L)).thenReturn(Optional.of(3L));
+        when(planetService.get(1L)).thenReturn(Optional.of(TATOOINE));
+
+        mockMvc
+                .perform(get("/planets/1").accept("application/cbor").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-cbor\"")));
+        mockMvc
+                .perform(get("/planets/1").accept("application/x-protobuf").header(HttpHeaders.IF_NONE_MATCH, "\"1-3-protobuf\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3-protobuf\""));
+        mockMvc
+                .perform(get("/planets/1").accept("application/x-jackson-smile").header(HttpHeaders.IF_NONE_MATCH, "\"1-3-cbor\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-smile\"")));
+    }
+
     @DisplayName("Teste de integração: Testa a busca por id e retorna not found")
     @Test
     public void getPlanet_ByUnexistingId_ReturnsNotFound() throws Exception {
@@ -95,6 +285,102 @@ class PlanetControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @DisplayName("Teste unitário: Testa a busca de vários ids retornando planetas na ordem e ids ausentes")
+    @Test
+    public void getPlanets_ByIds_ReturnsPlanetsInOrderAndMissingIds() throws Exception {
+        when(planetService.getAll(List.of(3L, 1L, 99L))).thenReturn(new PlanetLookup<>(List.of(YAVINIV, TATOOINE), List.of(99L)));
+
+        mockMvc.perform(get("/planets?ids=3,1,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.planets", hasSize(2)))
+                .andExpect(jsonPath("$.planets[0]").value(YAVINIV))
+                .andExpect(jsonPath("$.missing", contains(99)));
+    }
+
+    @DisplayName("Teste unitário: Testa a listagem com campos selecionados retornando apenas esses campos")
+    @Test
+    public void listPlanets_WithFields_ReturnsOnlySelectedFields() throws Exception {
+        Set<PlanetField> fields = EnumSet.of(PlanetField.ID, PlanetField.NAME);
+        when(planetService.list(null, null, fields, null, null))
+                .thenReturn(new SliceImpl<>(List.of(PlanetProjection.of(TATOOINE, fields))));
+
+        mockMvc.perform(get("/planets?fields=name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(TATOOINE.getId()))
+                .andExpect(jsonPath("$[0].name").value(TATOOINE.getName()))
+                .andExpect(jsonPath("$[0].climate").doesNotExist())
+                .andExpect(jsonPath("$[0].terrain").doesNotExist());
+    }
+
+    @DisplayName("Teste unitário: Testa a listagem com campo desconhecido retornando requisição inválida")
+    @Test
+    public void listPlanets_WithUnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/planets?fields=name,mass"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Teste unitário: Testa a busca por id com campos selecionados")
+    @Test
+    public void getPlanet_ByIdWithFields_ReturnsOnlySelectedFields() throws Exception {
+        when(planetService.get(1L)).thenReturn(Optional.of(TATOOINE));
+
+        mockMvc.perform(get("/planets/1?fields=climate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(TATOOINE.getId()))
+                .andExpect(jsonPath("$.climate").value(TATOOINE.getClimate()))
+                .andExpect(jsonPath("$.name").doesNotExist());
+    }
+
+    @DisplayName("Teste unitário: Testa a busca de vários ids com campos selecionados")
+    @Test
+    public void getPlanets_ByIdsWithFields_ReturnsOnlySelectedFields() throws Exception {
+        when(planetService.getAll(List.of(1L))).thenReturn(new PlanetLookup<>(List.of(TATOOINE), List.of()));
+
+        mockMvc.perform(get("/planets?ids=1&fields=name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.planets[0].name").value(TATOOINE.getName()))
+                .andExpect(jsonPath("$.planets[0].terrain").doesNotExist());
+    }
+
+    @DisplayName("Teste unitário: Testa a busca de vários ids enviados no corpo da requisição")
+    @Test
+    public void lookupPlanets_ByIdsInBody_ReturnsPlanets() throws Exception {
+        when(planetService.getAll(List.of(1L, 2L))).thenReturn(new PlanetLookup<>(List.of(TATOOINE, ALDERAAN), List.of()));
+
+        mockMvc.perform(post("/planets/lookup").contentType(MediaType.APPLICATION_JSON).content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.planets", hasSize(2)))
+                .andExpect(jsonPath("$.missing", hasSize(0)));
+    }
+
+    @DisplayName("Teste unitário: Testa a busca de vários ids com lista vazia retornando erro de validação")
+    @Test
+    public void lookupPlanets_WithEmptyIds_ReturnsUnprocessableEntity() throws Exception {
+        mockMvc.perform(post("/planets/lookup").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @DisplayName("Teste unitário: Testa a sugestão de nomes por prefixo com limite padrão")
+    @Test
+    public void suggestPlanets_ByPrefix_ReturnsNames() throws Exception {
+        when(planetService.suggest("ta", 10)).thenReturn(List.of("Tatooine", "Taris"));
+
+        mockMvc.perform(get("/planets/suggest?prefix=ta"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", contains("Tatooine", "Taris")));
+    }
+
+    @DisplayName("Teste unitário: Testa a busca por trecho de clima retornando os planetas do índice")
+    @Test
+    public void searchPlanets_ByClimateSubstring_ReturnsPlanets() throws Exception {
+        when(planetService.search(null, "temp", null, 100)).thenReturn(List.of(ALDERAAN, YAVINIV));
+
+        mockMvc.perform(get("/planets/search?climate=temp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]").value(ALDERAAN));
+    }
+
     @DisplayName("Teste de integração: Testa a busca por nome retornando um planet e status code ok")
     @Test
     public void getPlanet_ByExistingName_ReturnPlanet() throws Exception {
@@ -132,6 +418,114 @@ class PlanetControllerTest {
 
     }
 
+    @DisplayName("Teste de integração: Testa a busca por id negociando CBOR, Smile e protobuf e mantendo JSON como padrão")
+    @Test
+    public void getPlanet_AcceptingBinaryFormats_ReturnsEncodedPlanet() throws Exception {
+        Planet tatooine = new Planet(1L, "Tatooine", "arid", "desert");
+        when(planetService.get(1L)).thenReturn(Optional.of(tatooine));
+
+        assertThat(new CBORMapper().readValue(body(get("/planets/1"), "application/cbor"), Planet.class)).isEqualTo(tatooine);
+        assertThat(new SmileMapper().readValue(body(get("/planets/1"), "application/x-jackson-smile"), Planet.class)).isEqualTo(tatooine);
+        assertThat(new PlanetProtobufHttpMessageConverter()
+                .read(Planet.class, null, new MockHttpInputMessage(body(get("/planets/1"), "application/x-protobuf"))))
+                .isEqualTo(tatooine);
+        mockMvc.perform(get("/planets/1").accept(MediaType.ALL))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @DisplayName("Teste de integração: Testa a listagem em protobuf e a recusa de protobuf para corpos que não são planetas")
+    @Test
+    public void listPlanets_AcceptingProtobuf_ReturnsPlanetList() throws Exception {
+        when(planetService.list(null, null)).thenReturn(PLANET_LIST);
+
+        byte[] body = body(get("/planets"), "application/x-protobuf");
+
+        assertThat(new PlanetProtobufHttpMessageConverter().read(
+                ResolvableType.forClassWithGenerics(List.class, Planet.class).getType(), null, new MockHttpInputMessage(body)))
+                .isEqualTo(PLANET_LIST);
+        mockMvc.perform(get("/planets/suggest?prefix=T").accept("application/x-protobuf"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @DisplayName("Teste de integração: Criando planetas a partir de corpos em CBOR, Smile e protobuf")
+    @Test
+    public void createPlanet_WithBinaryBodies_ReturnsPlanet() throws Exception {
+        when(planetService.create(PLANET)).thenReturn(PLANET);
+        MockHttpOutputMessage protobuf = new MockHttpOutputMessage();
+        new PlanetProtobufHttpMessageConverter().write(PLANET, Planet.class, null, protobuf);
+
+        mockMvc.perform(post("/planets").contentType("application/cbor").content(new CBORMapper().writeValueAsBytes(PLANET)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/planets").contentType("application/x-jackson-smile").content(new SmileMapper().writeValueAsBytes(PLANET)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/planets").contentType("application/x-protobuf").content(protobuf.getBodyAsBytes()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$").value(PLANET));
+        mockMvc.perform(post("/planets").contentType("application/x-protobuf").content(new byte[]{0x12, 0x05, 'n'}))
+                .andExpect(status().isBadRequest());
+        verify(planetService, times(3)).create(PLANET);
+    }
+
+    @DisplayName("Teste de integração: Testa a listagem sem escritas desde a ETag retornando not modified sem consultar")
+    @Test
+    public void listPlanets_WithCurrentETag_ReturnsNotModifiedWithoutQuerying() throws Exception {
+        when(planetService.listVersion()).thenReturn("epoch-7");
+        when(planetService.list(null, null)).thenReturn(PLANET_LIST);
+
+        String etag = mockMvc.perform(get("/planets"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"epoch-7\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/planets").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(planetService, times(1)).list(null, null);
+
+        when(planetService.listVersion()).thenReturn("epoch-8");
+        mockMvc.perform(get("/planets").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @DisplayName("Teste de integração: Testa as estatísticas com ETag retornando not modified sem recontar")
+    @Test
+    public void stats_WithCurrentETag_ReturnsNotModified() throws Exception {
+        when(planetService.listVersion()).thenReturn("epoch-7");
+        when(planetService.stats()).thenReturn(new PlanetStats(3, Map.of("arid", 1L, "temperate", 2L),
+                Map.of("desert", 1L, "grass", 1L, "tropical", 1L),
+                Map.of("arid", Map.of("desert", 1L), "temperate", Map.of("grass", 1L, "tropical", 1L))));
+
+        mockMvc.perform(get("/planets/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"epoch-7\""))
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byClimate.temperate").value(2))
+                .andExpect(jsonPath("$.byTerrain.desert").value(1))
+                .andExpect(jsonPath("$.byClimateAndTerrain.temperate.tropical").value(1));
+        mockMvc.perform(get("/planets/stats").header(HttpHeaders.IF_NONE_MATCH, "W/\"epoch-7\""))
+                .andExpect(status().isNotModified());
+        verify(planetService, times(1)).stats();
+    }
+
+    @DisplayName("Teste de integração: Testa o HEAD da listagem retornando a contagem filtrada sem listar")
+    @Test
+    public void countPlanets_WithHead_ReturnsTotalCountHeader() throws Exception {
+        when(planetService.listVersion()).thenReturn("epoch-7");
+        when(planetService.count("desert", null)).thenReturn(1L);
+        when(planetService.count(null, null)).thenReturn(3L);
+
+        mockMvc.perform(head("/planets").param("terrain", "desert"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"epoch-7\""))
+                .andExpect(content().string(""));
+        mockMvc.perform(head("/planets"))
+                .andExpect(header().string("X-Total-Count", "3"));
+        verify(planetService, never()).list(any(), any());
+    }
+
     @DisplayName("Teste de integração: Testa a busca por filtros e retorna lista vazia")
     @Test
     public void listPlanets_ReturnsEmpty() throws Exception {
@@ -142,9 +536,61 @@ class PlanetControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @DisplayName("Teste de integração: Testa a paginação por cursor retornando a página e o link da próxima")
+    @Test
+    public void listPlanets_WithLimit_ReturnsPageAndNextLink() throws Exception {
+        when(planetService.list(null, null, null, 2))
+                .thenReturn(new SliceImpl<>(List.of(TATOOINE, ALDERAAN), Pageable.ofSize(2), true));
+        when(planetService.list(null, null, ALDERAAN.getId(), 2))
+                .thenReturn(new SliceImpl<>(List.of(YAVINIV), Pageable.ofSize(2), false));
+
+        String next = mockMvc.perform(get("/planets?limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+                .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+
+        String nextUri = next.substring(next.indexOf('<') + 1, next.indexOf('>'));
+        mockMvc.perform(get(nextUri))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]").value(YAVINIV))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @DisplayName("Teste de integração: Testa a paginação com cursor inválido retornando bad request")
+    @Test
+    public void listPlanets_WithInvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/planets?after=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Teste de integração: Testa a exportação em NDJSON escrevendo um planeta por linha")
+    @Test
+    public void exportPlanets_AsNdjson_ReturnsOnePlanetPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Planet> consumer = invocation.getArgument(2);
+            PLANET_LIST.forEach(consumer);
+            return null;
+        }).when(planetService).export(isNull(), isNull(), any());
+
+        MvcResult result = mockMvc.perform(get("/planets").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String expected = objectMapper.writeValueAsString(TATOOINE) + "\n"
+                + objectMapper.writeValueAsString(ALDERAAN) + "\n"
+                + objectMapper.writeValueAsString(YAVINIV) + "\n";
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(expected));
+    }
+
     @DisplayName("Teste de integração: Remove planets passando Id existente retorna NoContent")
     @Test
     public void removePlanet_WithExistingId_ReturnnoContent() throws Exception {
+        when(planetService.remove(1L)).thenReturn(true);
 
         mockMvc.perform(delete("/planets/1")).andExpect(status().isNoContent())
         .andExpect(jsonPath("$").doesNotExist());
@@ -154,10 +600,193 @@ class PlanetControllerTest {
     @Test
     public void removePlanet_WithUnexisitingId_ReturnNotFound() throws Exception {
         final long id = 1L;
-        doThrow(new EmptyResultDataAccessException(1)).when(planetService).remove(id);
+        when(planetService.remove(id)).thenReturn(false);
 
         mockMvc.perform(delete("/planets/" + id)).andExpect(status().isNotFound());
 
     }
 
-}
\ No newline at end of file
+    @DisplayName("Teste de integração: Remove planetas por lista de ids retornando a quantidade removida")
+    @Test
+    public void removePlanets_ByIds_ReturnsRemovedCount() throws Exception {
+        when(planetService.removeAll(List.of(1L, 2L, 99L))).thenReturn(new PlanetRemovalSummary(2));
+
+        mockMvc.perform(delete("/planets?ids=1,2,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.removed").value(2));
+    }
+
+    @DisplayName("Teste de integração: Remove planetas por filtro e recusa a remoção sem nenhum filtro")
+    @Test
+    public void removePlanets_ByFilter_RequiresAFilter() throws Exception {
+        when(planetService.removeAll(null, "arid")).thenReturn(new PlanetRemovalSummary(1));
+
+        mockMvc.perform(delete("/planets?climate=arid"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.removed").value(1));
+        mockMvc.perform(delete("/planets"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Teste de integração: Substitui um planeta sem If-Match retornando o planeta e a nova ETag")
+    @Test
+    public void replacePlanet_WithoutIfMatch_ReturnsPlanetWithETag() throws Exception {
+        Planet hoth = new Planet(1L, "Hoth", "frozen", "tundra");
+        when(planetService.update(eq(1L), any(Planet.class))).thenReturn(Optional.of(hoth));
+
+        mockMvc.perform(put("/planets/1").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(hoth)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(hoth));
+        mockMvc.perform(put("/planets/1").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Hoth\"}"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @DisplayName("Teste de integração: Substitui um planeta com If-Match retornando o planeta gravado e a nova ETag")
+    @Test
+    public void replacePlanet_WithIfMatch_ReturnsStoredPlanetWithETag() throws Exception {
+        Planet hoth = new Planet("Hoth", "frozen", "tundra");
+        Planet stored = new Planet(1L, "Hoth", "frozen", "tundra");
+        ReflectionTestUtils.setField(stored, "version", 4L);
+        when(planetService.update(eq(1L), eq(3L), any(Planet.class))).thenReturn(Optional.of(4L));
+        when(planetService.get(1L)).thenReturn(Optional.of(stored));
+
+        mockMvc.perform(put("/planets/1").header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(hoth)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""))
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$").value(stored));
+        verify(planetService).update(1L, 3L, new Planet(1L, "Hoth", "frozen", "tundra"));
+    }
+
+    @DisplayName("Teste de integração: Atualiza parcialmente com If-Match retornando no content e a nova ETag sem ler o planeta")
+    @Test
+    public void updatePlanet_WithIfMatch_ReturnsNoContentWithoutReading() throws Exception {
+        when(planetService.update(eq(1L), eq(3L), any(Planet.class))).thenReturn(Optional.of(4L));
+
+        mockMvc.perform(patch("/planets/1").header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"terrain\":\"ice\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""));
+        verify(planetService).update(1L, 3L, new Planet(null, null, "ice"));
+        verify(planetService, never()).get(1L);
+        verify(planetService, never()).update(eq(1L), any(Planet.class));
+    }
+
+    @DisplayName("Teste de integração: Atualiza parcialmente com If-Match de uma ETag em CBOR retornando a nova ETag em CBOR")
+    @Test
+    public void updatePlanet_WithIfMatchOfCborETag_ReturnsNoContentWithCborETag() throws Exception {
+        when(planetService.update(eq(1L), eq(3L), any(Planet.class))).thenReturn(Optional.of(4L));
+
+        mockMvc.perform(patch("/planets/1").header(HttpHeaders.IF_MATCH, "\"1-3-cbor\"").accept("application/cbor")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"terrain\":\"ice\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4-cbor\""));
+        verify(planetService).update(1L, 3L, new Planet(null, null, "ice"));
+    }
+
+    @DisplayName("Teste de integração: Atualiza parcialmente com versão antiga ou ETag de outro planeta retornando precondition failed")
+    @Test
+    public void updatePlanet_WithStaleOrForeignIfMatch_ReturnsPreconditionFailed() throws Exception {
+        when(planetService.update(eq(1L), eq(2L), any(Planet.class)))
+                .thenThrow(new PlanetVersionMismatchException(1L, 2L, 3L));
+
+        for (String ifMatch : List.of("\"1-2\"", "\"2-3\"", "W/\"1-3\"", "\"abc\"")) {
+            mockMvc.perform(patch("/planets/1").header(HttpHeaders.IF_MATCH, ifMatch)
+                            .contentType(MediaType.APPLICATION_JSON).content("{\"terrain\":\"ice\"}"))
+                    .andExpect(status().isPreconditionFailed());
+        }
+        verify(planetService, times(1)).update(eq(1L), eq(2L), any(Planet.class));
+    }
+
+    @DisplayName("Teste de integração: Atualiza parcialmente um planeta inexistente retornando not found")
+    @Test
+    public void updatePlanet_ByUnexistingId_ReturnsNotFound() throws Exception {
+        when(planetService.update(eq(1L), eq(3L), any(Planet.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(patch("/planets/1").contentType(MediaType.APPLICATION_JSON).content("{\"terrain\":\"ice\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/planets/1").header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"terrain\":\"ice\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Teste de integração: Atualiza parcialmente com campo em branco retornando erro de validação")
+    @Test
+    public void updatePlanet_WithBlankField_ReturnsUnprocessableEntity() throws Exception {
+        mockMvc.perform(patch("/planets/1").contentType(MediaType.APPLICATION_JSON).content("{\"climate\":\"\"}"))
+                .andExpect(status().isUnprocessableEntity());
+        verify(planetService, never()).update(eq(1L), any(Planet.class));
+    }
+
+    @DisplayName("Teste de integração: Atualização concorrente sem If-Match perdida retornando conflito")
+    @Test
+    public void updatePlanet_LosingConcurrentUpdate_ReturnsConflict() throws Exception {
+        when(planetService.update(eq(1L), any(Planet.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Planet.class, 1L));
+
+        mockMvc.perform(patch("/planets/1").contentType(MediaType.APPLICATION_JSON).content("{\"terrain\":\"ice\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @DisplayName("Teste de integração: Upsert por nome retorna created ao inserir e ok ao atualizar")
+    @Test
+    public void upsertPlanet_ByName_ReturnsCreatedOrOk() throws Exception {
+        Planet hoth = new Planet(1000L, "Hoth", "frozen", "tundra");
+        when(planetService.upsert(new Planet("Hoth", "frozen", "tundra")))
+                .thenReturn(new PlanetUpsert(hoth, true), new PlanetUpsert(hoth, false));
+        String body = "{\"climate\":\"frozen\",\"terrain\":\"tundra\"}";
+
+        mockMvc.perform(put("/planets/name/Hoth").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$").value(hoth));
+        mockMvc.perform(put("/planets/name/Hoth").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1000));
+    }
+
+    @DisplayName("Teste de integração: Upsert por nome sem clima retorna erro de validação")
+    @Test
+    public void upsertPlanet_WithInvalidData_ReturnsUnprocessableEntity() throws Exception {
+        mockMvc.perform(put("/planets/name/Hoth").contentType(MediaType.APPLICATION_JSON).content("{\"terrain\":\"tundra\"}"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @DisplayName("Teste de integração: Conflitos, notFound e dados inválidos são contados separadamente por status")
+    @Test
+    public void errors_MappedByHandler_AreCountedByStatus() throws Exception {
+        double conflicts = errors("409");
+        double notFound = errors("404");
+        double invalid = errors("422");
+        when(planetService.create(any())).thenThrow(DataIntegrityViolationException.class);
+        when(planetService.remove(1L)).thenReturn(false);
+        when(planetService.get(1L)).thenReturn(Optional.empty());
+
+        mockMvc
+                .perform(post("/planets").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(PLANET)))
+                .andExpect(status().isConflict());
+        mockMvc.perform(delete("/planets/1")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/planets/1")).andExpect(status().isNotFound());
+        mockMvc.perform(put("/planets/name/Hoth").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(put("/planets/name/Hoth").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(errors("409")).isEqualTo(conflicts + 1);
+        assertThat(errors("404")).isEqualTo(notFound + 2);
+        assertThat(errors("422")).isEqualTo(invalid + 2);
+    }
+
+    private byte[] body(MockHttpServletRequestBuilder request, String mediaType) throws Exception {
+        return mockMvc.perform(request.accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private double errors(String status) {
+        return meterRegistry.find("planets.errors").tag("status", status).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+}
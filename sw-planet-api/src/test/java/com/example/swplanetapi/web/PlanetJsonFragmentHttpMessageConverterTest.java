@@ -0,0 +1,117 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.Planet;
+import com.example.swplanetapi.domain.PlanetRemovedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlanetJsonFragmentHttpMessageConverterTest {
+
+    private static final Type PLANET_LIST = ResolvableType.forClassWithGenerics(List.class, Planet.class).getType();
+    private static final int LARGE_LIST = 10_000;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final PlanetJsonFragmentHttpMessageConverter converter =
+            new PlanetJsonFragmentHttpMessageConverter(objectMapper, 1024 * 1024, new SimpleMeterRegistry());
+
+    @DisplayName("Teste unitário: Testa que a lista montada com fragmentos é idêntica à escrita pelo Jackson")
+    @Test
+    public void write_PlanetList_MatchesJackson() throws Exception {
+        List<Planet> planets = Arrays.asList(versioned(1L, "Tatooine", 0), versioned(2L, "Alderaan \"2\"", 3), null,
+                new Planet("Hoth", "frozen", "tundra"));
+
+        byte[] cold = write(planets, PLANET_LIST);
+        byte[] warm = write(planets, PLANET_LIST);
+
+        assertThat(new String(warm)).isEqualTo(new String(cold)).isEqualTo(jackson(planets, PLANET_LIST));
+        assertThat(new String(write(planets.get(0), Planet.class))).isEqualTo(jackson(planets.get(0), Planet.class));
+        assertThat(write(List.of(), PLANET_LIST)).isEqualTo("[]".getBytes());
+    }
+
+    @DisplayName("Teste unitário: Testa que uma lista grande montada com fragmentos tem os mesmos bytes da escrita pelo Jackson")
+    @Test
+    public void write_LargePlanetList_MatchesJacksonByteForByte() throws Exception {
+        List<Planet> planets = new ArrayList<>(LARGE_LIST);
+        for (int i = 0; i < LARGE_LIST; i++) {
+            planets.add(versioned(1000L + i, "planet " + i, i % 3));
+        }
+
+        byte[] expected = jacksonBytes(planets, PLANET_LIST);
+
+        assertThat(write(planets, PLANET_LIST)).isEqualTo(expected);
+        assertThat(write(planets, PLANET_LIST)).isEqualTo(expected);
+    }
+
+    @DisplayName("Teste unitário: Testa que o fragmento é reaproveitado na mesma versão e refeito em outra ou após remoção")
+    @Test
+    public void fragment_ByVersion_IsReusedUntilChanged() throws Exception {
+        byte[] fragment = converter.fragment(versioned(1L, "Tatooine", 0));
+
+        assertThat(converter.fragment(versioned(1L, "Tatooine", 0))).isSameAs(fragment);
+        assertThat(new String(converter.fragment(versioned(1L, "Tatooine II", 1)))).contains("Tatooine II");
+
+        byte[] updated = converter.fragment(versioned(1L, "Tatooine II", 1));
+        converter.onPlanetRemoved(new PlanetRemovedEvent(versioned(1L, "Tatooine II", 1)));
+        assertThat(converter.fragment(versioned(1L, "Tatooine II", 1))).isNotSameAs(updated).isEqualTo(updated);
+    }
+
+    @DisplayName("Teste unitário: Testa que planetas sem versão são escritos sem entrar no cache")
+    @Test
+    public void fragment_WithoutVersion_IsNotCached() throws Exception {
+        Planet planet = new Planet(1L, "Tatooine", "arid", "desert");
+
+        assertThat(converter.fragment(planet)).isNotSameAs(converter.fragment(planet));
+    }
+
+    @DisplayName("Teste unitário: Testa que só escreve planetas e listas de planetas em JSON e nunca lê")
+    @Test
+    public void canReadAndWrite_OnlyWritesPlanetsAsJson() {
+        Type strings = ResolvableType.forClassWithGenerics(List.class, String.class).getType();
+
+        assertThat(converter.canWrite(PLANET_LIST, List.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(Planet.class, Planet.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(strings, List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(PLANET_LIST, List.class, MediaType.valueOf("application/cbor"))).isFalse();
+        assertThat(converter.canRead(Planet.class, null, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canRead(PLANET_LIST, null, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    static Planet versioned(Long id, String name, long version) {
+        Planet planet = new Planet(id, name, "arid", "desert");
+        ReflectionTestUtils.setField(planet, "version", version);
+        return planet;
+    }
+
+    private byte[] write(Object value, Type type) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, type, MediaType.APPLICATION_JSON, output);
+        assertThat(output.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        return output.getBodyAsBytes();
+    }
+
+    private String jackson(Object value, Type type) throws Exception {
+        return new String(jacksonBytes(value, type));
+    }
+
+    private byte[] jacksonBytes(Object value, Type type) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        new MappingJackson2HttpMessageConverter(objectMapper).write(value, type, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsBytes();
+    }
+}
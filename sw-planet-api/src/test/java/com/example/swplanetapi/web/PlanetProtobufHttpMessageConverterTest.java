@@ -0,0 +1,96 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.domain.Planet;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.swplanetapi.common.PlanetConstants.*;
+import static com.example.swplanetapi.web.PlanetProtobufHttpMessageConverter.PROTOBUF;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PlanetProtobufHttpMessageConverterTest {
+
+    private static final Type PLANET_LIST = ResolvableType.forClassWithGenerics(List.class, Planet.class).getType();
+
+    private final PlanetProtobufHttpMessageConverter converter = new PlanetProtobufHttpMessageConverter();
+
+    @DisplayName("Teste unitário: Testa que um planeta escrito em protobuf é lido de volta igual")
+    @Test
+    public void writeAndRead_Planet_RoundTrips() throws Exception {
+        Planet planet = new Planet(1000L, "Tatooine", "arid", "desert");
+
+        Object sut = converter.read(Planet.class, null, new MockHttpInputMessage(write(planet, Planet.class)));
+
+        assertThat(sut).isEqualTo(planet);
+    }
+
+    @DisplayName("Teste unitário: Testa que uma lista de planetas escrita em protobuf é lida de volta na mesma ordem")
+    @Test
+    public void writeAndRead_PlanetList_RoundTrips() throws Exception {
+        List<Planet> planets = List.of(new Planet(1L, "Tatooine", "arid", "desert"), new Planet("Alderaan", "temperate", "grasslands, mountains"));
+
+        Object sut = converter.read(PLANET_LIST, null, new MockHttpInputMessage(write(planets, PLANET_LIST)));
+
+        assertThat(sut).isEqualTo(planets);
+        assertThat(converter.read(PLANET_LIST, null, new MockHttpInputMessage(new byte[0]))).isEqualTo(List.of());
+    }
+
+    @DisplayName("Teste unitário: Testa que campos ausentes ficam nulos e campos desconhecidos são ignorados")
+    @Test
+    public void read_WithMissingAndUnknownFields_KeepsKnownFields() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(body);
+        output.writeString(2, "Hoth");
+        output.writeInt32(9, 42);
+        output.writeString(10, "unknown");
+        output.writeString(4, "tundra");
+        output.flush();
+
+        Object sut = converter.read(Planet.class, null, new MockHttpInputMessage(body.toByteArray()));
+
+        assertThat(sut).isEqualTo(new Planet("Hoth", null, "tundra"));
+    }
+
+    @DisplayName("Teste unitário: Testa que um corpo protobuf truncado é recusado como ilegível")
+    @Test
+    public void read_TruncatedBody_ThrowsNotReadable() throws Exception {
+        byte[] body = write(PLANET, Planet.class);
+        byte[] truncated = Arrays.copyOf(body, body.length - 2);
+
+        assertThatThrownBy(() -> converter.read(Planet.class, null, new MockHttpInputMessage(truncated)))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+    }
+
+    @DisplayName("Teste unitário: Testa que só planetas e listas de planetas são convertidos")
+    @Test
+    public void canReadAndWrite_OnlyPlanetsAndPlanetLists() {
+        Type strings = ResolvableType.forClassWithGenerics(List.class, String.class).getType();
+
+        assertThat(converter.canWrite(Planet.class, Planet.class, PROTOBUF)).isTrue();
+        assertThat(converter.canWrite(PLANET_LIST, List.class, PROTOBUF)).isTrue();
+        assertThat(converter.canRead(PLANET_LIST, null, PROTOBUF)).isTrue();
+        assertThat(converter.canWrite(strings, List.class, PROTOBUF)).isFalse();
+        assertThat(converter.canRead(strings, null, PROTOBUF)).isFalse();
+        assertThat(converter.canWrite(Object.class, Planet.class, PROTOBUF)).isFalse();
+        assertThat(converter.canWrite(Planet.class, Planet.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    private byte[] write(Object value, Type type) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, type, PROTOBUF, output);
+        assertThat(output.getHeaders().getContentType()).isEqualTo(PROTOBUF);
+        return output.getBodyAsBytes();
+    }
+}
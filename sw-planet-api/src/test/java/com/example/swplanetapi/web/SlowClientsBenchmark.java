@@ -0,0 +1,126 @@
+package com.example.swplanetapi.web;
+
+import com.example.swplanetapi.threads.VirtualThreads;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * {@code benchmark.clients} clients each send POST /planets to a running server, trickling the body
+ * in over {@code benchmark.trickle}, so every request holds its request thread while it waits on
+ * the network. Run it once against a server on platform threads and once with
+ * {@code planets.threads.virtual.enabled=true}; only requests that finish after the ramp are
+ * counted. It is not picked up by the normal build:
+ *
+ * <pre>mvn test -Dtest=SlowClientsBenchmark -Dbenchmark.url=http://localhost:8080</pre>
+ */
+public class SlowClientsBenchmark {
+
+    private static final String URL = System.getProperty("benchmark.url", "");
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 10_000);
+    private static final int PIECES = Integer.getInteger("benchmark.pieces", 4);
+    private static final Duration TRICKLE = Duration.parse(System.getProperty("benchmark.trickle", "PT2S"));
+    private static final Duration RAMP = Duration.parse(System.getProperty("benchmark.ramp", "PT20S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT60S"));
+
+    @DisplayName("Benchmark: Vazão de criação de planetas com 10 mil clientes lentos concorrentes")
+    @Test
+    public void createPlanet_UnderSlowClients_ReportsThroughputAndLatency() throws Exception {
+        assumeFalse(URL.isBlank(), "benchmark.url is not set");
+        URI target = URI.create(URL);
+        // Platform threads would make the client the bottleneck at this many connections.
+        ThreadFactory threads = VirtualThreads.isSupported() ? VirtualThreads.factory("slow-client-") : Thread::new;
+
+        long rampEnd = System.nanoTime() + RAMP.toNanos();
+        long deadline = rampEnd + DURATION.toNanos();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+
+        List<Thread> clients = new ArrayList<>(CLIENTS);
+        for (int client = 0; client < CLIENTS; client++) {
+            int id = client;
+            Thread thread = threads.newThread(() -> {
+                for (int request = 0; System.nanoTime() < deadline; request++) {
+                    long sent = System.nanoTime();
+                    boolean created = post(target, "slow " + id + " " + request);
+                    long done = System.nanoTime();
+                    if (done < rampEnd || done > deadline) {
+                        continue;
+                    }
+                    if (created) {
+                        latencies.add(done - sent);
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            clients.add(thread);
+            Thread.sleep(RAMP.toMillis() / CLIENTS);
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        assertThat(sorted).isNotEmpty();
+        System.out.printf("%s: %d clients, %.1f created/s, p50 %d ms, p99 %d ms, max %d ms, %d errors%n",
+                URL, CLIENTS, sorted.size() / (DURATION.toNanos() / 1e9), millis(percentile(sorted, 50)),
+                millis(percentile(sorted, 99)), millis(sorted.get(sorted.size() - 1)), errors.get());
+    }
+
+    private static boolean post(URI target, String name) {
+        byte[] body = ("{\"name\":\"" + name + "\",\"climate\":\"arid\",\"terrain\":\"desert\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        String head = "POST /planets HTTP/1.1\r\n"
+                + "Host: " + target.getHost() + "\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+        try (Socket socket = new Socket(target.getHost(), target.getPort())) {
+            socket.setSoTimeout((int) DURATION.toMillis());
+            OutputStream out = socket.getOutputStream();
+            out.write(head.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            int piece = (body.length + PIECES - 1) / PIECES;
+            for (int offset = 0; offset < body.length; offset += piece) {
+                Thread.sleep(TRICKLE.toMillis() / PIECES);
+                out.write(body, offset, Math.min(piece, body.length - offset));
+                out.flush();
+            }
+            String status = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine();
+            return status != null && status.startsWith("HTTP/1.1 201");
+        } catch (IOException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        return sorted.get((int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}